@@ -0,0 +1,119 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class DatabaseSeeder {
+    private static final int BATCH_SIZE = 5000;
+    private static final String[] WORDS = ("история жизнь любовь война семья друг город мир время дом ночь путь " +
+            "герой тайна сердце дорога небо море река лес зима лето весна осень ёлка праздник новый год мечта судьба " +
+            "полёт звезда космос корабль остров берег огонь вода земля солнце луна тень свет сила правда ложь месть " +
+            "закон преступление детектив следователь убийство побег погоня ограбление банк деньги золото игра карта " +
+            "шахматы музыка песня танец театр кино сцена актёр художник писатель учитель врач солдат капитан генерал " +
+            "король королева принц принцесса дракон волшебник ведьма чудо сказка приключение путешествие экспедиция " +
+            "горы пустыня тайга деревня столица москва петербург сибирь кавказ волга память детство юность старость " +
+            "надежда вера страх смех слёзы радость печаль комедия драма трагедия мелодрама триллер боевик фантастика")
+            .split(" ");
+
+    private final int users;
+    private final int films;
+    private final int likesPerFilm;
+    private final int friendsPerUser;
+
+    public DatabaseSeeder(int users, int films, int likesPerFilm, int friendsPerUser) {
+        this.users = users;
+        this.films = films;
+        this.likesPerFilm = likesPerFilm;
+        this.friendsPerUser = friendsPerUser;
+    }
+
+    public void seed(JdbcTemplate jdbcTemplate) {
+        Random random = new Random(42);
+        Date birthday = Date.valueOf(LocalDate.of(1990, 1, 1));
+        List<Object[]> batch = new ArrayList<>();
+
+        String usersSql = "INSERT INTO users (user_id, email, login, name, birthday) VALUES (?, ?, ?, ?, ?)";
+        for (long id = 1; id <= users; id++)
+            add(jdbcTemplate, batch, usersSql, id, "user" + id + "@ya.ru", "user" + id, "Пользователь " + id, birthday);
+        flush(jdbcTemplate, batch, usersSql);
+
+        String friendsSql = "INSERT INTO friends (user_id, friend_id, status_id) VALUES (?, ?, ?)";
+        for (long id = 1; id <= users; id++) {
+            int start = random.nextInt(users - 1);
+            for (int k = 0; k < Math.min(friendsPerUser, users - 1); k++) {
+                long friendId = (id + (start + k) % (users - 1)) % users + 1;
+                add(jdbcTemplate, batch, friendsSql, id, friendId, 1);
+            }
+        }
+        flush(jdbcTemplate, batch, friendsSql);
+
+        String filmsSql = "INSERT INTO films (film_id, name, description, release_date, duration, rating_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+        for (long id = 1; id <= films; id++)
+            add(jdbcTemplate, batch, filmsSql, id, text(random, 1 + random.nextInt(3), 100),
+                    text(random, 8 + random.nextInt(13), 200),
+                    Date.valueOf(LocalDate.of(1950 + random.nextInt(70), 1 + random.nextInt(12), 1)),
+                    60 + random.nextInt(120), 1 + random.nextInt(5));
+        flush(jdbcTemplate, batch, filmsSql);
+
+        String genresSql = "INSERT INTO film_genre (film_id, genre_id) VALUES (?, ?)";
+        for (long id = 1; id <= films; id++) {
+            int first = 1 + random.nextInt(6);
+            add(jdbcTemplate, batch, genresSql, id, first);
+            if (random.nextBoolean())
+                add(jdbcTemplate, batch, genresSql, id, first % 6 + 1);
+        }
+        flush(jdbcTemplate, batch, genresSql);
+
+        String likesSql = "INSERT INTO film_likes (film_id, user_id) VALUES (?, ?)";
+        int likers = users / 2;
+        for (long id = 1; id <= films; id++) {
+            int count = Math.min(random.nextInt(2 * likesPerFilm + 1), likers);
+            int start = random.nextInt(likers);
+            for (int k = 0; k < count; k++)
+                add(jdbcTemplate, batch, likesSql, id, (long) (start + k) % likers + 1);
+        }
+        flush(jdbcTemplate, batch, likesSql);
+        jdbcTemplate.update("UPDATE films f SET like_count = " +
+                "(SELECT COUNT(*) FROM film_likes fl WHERE fl.film_id = f.film_id)");
+
+        jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN user_id RESTART WITH " + (users + 1));
+        jdbcTemplate.execute("ALTER TABLE films ALTER COLUMN film_id RESTART WITH " + (films + 1));
+    }
+
+    /**
+     * Возвращает случайное слово словаря; слова из начала словаря встречаются чаще, как в живом тексте.
+     */
+    public static String randomWord(Random random) {
+        return WORDS[random.nextInt(random.nextInt(WORDS.length) + 1)];
+    }
+
+    private static String text(Random random, int words, int maxLength) {
+        StringBuilder text = new StringBuilder(randomWord(random));
+        text.setCharAt(0, Character.toUpperCase(text.charAt(0)));
+        for (int i = 1; i < words; i++) {
+            String word = randomWord(random);
+            if (text.length() + 1 + word.length() > maxLength)
+                break;
+            text.append(' ').append(word);
+        }
+        return text.toString();
+    }
+
+    private void add(JdbcTemplate jdbcTemplate, List<Object[]> batch, String sql, Object... args) {
+        batch.add(args);
+        if (batch.size() >= BATCH_SIZE)
+            flush(jdbcTemplate, batch, sql);
+    }
+
+    private void flush(JdbcTemplate jdbcTemplate, List<Object[]> batch, String sql) {
+        if (!batch.isEmpty())
+            jdbcTemplate.batchUpdate(sql, batch);
+        batch.clear();
+    }
+}
@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilmSearchBenchmark {
+    @Benchmark
+    public List<Film> searchOneWord(FilmorateState state) {
+        return state.filmService.searchFilms(DatabaseSeeder.randomWord(ThreadLocalRandom.current()), 10);
+    }
+
+    @Benchmark
+    public List<Film> searchTwoWords(FilmorateState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return state.filmService.searchFilms(DatabaseSeeder.randomWord(random) + " "
+                + DatabaseSeeder.randomWord(random), 10);
+    }
+}
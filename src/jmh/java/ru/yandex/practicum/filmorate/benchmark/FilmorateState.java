@@ -0,0 +1,111 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.service.film.FilmLeaderboard;
+import ru.yandex.practicum.filmorate.service.film.FilmRecommender;
+import ru.yandex.practicum.filmorate.service.film.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.service.film.FilmService;
+import ru.yandex.practicum.filmorate.service.film.LikesService;
+import ru.yandex.practicum.filmorate.service.user.FriendsService;
+import ru.yandex.practicum.filmorate.service.user.UserService;
+import ru.yandex.practicum.filmorate.storage.user.FriendsGraphStorage;
+
+import java.util.Random;
+import java.util.UUID;
+
+@State(Scope.Benchmark)
+public class FilmorateState {
+    @Param({"1000", "10000", "100000"})
+    public int films;
+
+    @Param({"10000"})
+    public int users;
+
+    @Param({"20"})
+    public int likesPerFilm;
+
+    @Param({"50"})
+    public int friendsPerUser;
+
+    @Param({"false"})
+    public boolean cache;
+
+    @Param({"false"})
+    public boolean writeBehind;
+
+    @Param({"false"})
+    public boolean fanOut;
+
+    @Param({"false"})
+    public boolean friendsGraph;
+
+    public FilmService filmService;
+    public LikesService likesService;
+    public UserService userService;
+    public FriendsService friendsService;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(FilmorateApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(context -> context.getBeanFactory()
+                        .addBeanPostProcessor(QueryCountProfiler.dataSourceWrapper()))
+                .run("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()
+                                + ";DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=128",
+                        "--logging.level.root=warn",
+                        "--logging.level.ru.yandex.practicum.filmorate=warn",
+                        "--filmorate.cache.films.enabled=" + cache,
+                        "--filmorate.likes.write-behind.enabled=" + writeBehind,
+                        "--filmorate.fan-out.enabled=" + fanOut,
+                        "--filmorate.friends.suggestions.cache.maximum-size=" + (cache ? 10000 : 0),
+                        "--spring.profiles.active=" + (friendsGraph ? "friends-graph" : "default"));
+        new DatabaseSeeder(users, films, likesPerFilm, friendsPerUser).seed(context.getBean(JdbcTemplate.class));
+        if (friendsGraph)
+            context.getBean(FriendsGraphStorage.class).load();
+        context.getBean(FilmLeaderboard.class).rebuild();
+        context.getBean(FilmRecommender.class).rebuild();
+        context.getBean(FilmSearchIndex.class).rebuild();
+
+        filmService = context.getBean(FilmService.class);
+        likesService = context.getBean(LikesService.class);
+        userService = context.getBean(UserService.class);
+        friendsService = context.getBean(FriendsService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Пользователи из первой половины диапазона ставят лайки при заполнении базы,
+     * вторая половина остаётся свободной для измерения добавления лайков.
+     */
+    public long randomLiker(Random random) {
+        return users / 2 + 1 + random.nextInt(users - users / 2);
+    }
+
+    public long randomSeededLiker(Random random) {
+        return 1 + random.nextInt(users / 2);
+    }
+
+    public long randomFilm(Random random) {
+        return 1 + random.nextInt(films);
+    }
+
+    public long randomUser(Random random) {
+        return 1 + random.nextInt(users);
+    }
+}
@@ -0,0 +1,114 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.service.film.FilmLeaderboard;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение стека Spring MVC + JDBC (stack=mvc) и WebFlux + R2DBC (stack=reactive) через HTTP.
+ * Приложение запускается на случайном порту, запросы отправляют одновременно 16 клиентов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class HttpStackBenchmark {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    @Param({"mvc", "reactive"})
+    public String stack;
+
+    @Param({"10000"})
+    public int films;
+
+    @Param({"1000"})
+    public int users;
+
+    @Param({"20"})
+    public int likesPerFilm;
+
+    @Param({"10"})
+    public int friendsPerUser;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean reactive = "reactive".equals(stack);
+        context = new SpringApplicationBuilder(FilmorateApplication.class)
+                .web(reactive ? WebApplicationType.REACTIVE : WebApplicationType.SERVLET)
+                .profiles(reactive ? "reactive" : "default")
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:http-" + UUID.randomUUID()
+                                + ";DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=128",
+                        "--logging.level.root=warn",
+                        "--logging.level.ru.yandex.practicum.filmorate=warn",
+                        "--logging.level.org.zalando.logbook=warn",
+                        "--filmorate.cache.films.enabled=false");
+        new DatabaseSeeder(users, films, likesPerFilm, friendsPerUser).seed(context.getBean(JdbcTemplate.class));
+        context.getBean(FilmLeaderboard.class).rebuild();
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String getFilm() throws IOException, InterruptedException {
+        return get("/films/" + (1 + ThreadLocalRandom.current().nextInt(films)));
+    }
+
+    @Benchmark
+    public String getUser() throws IOException, InterruptedException {
+        return get("/users/" + (1 + ThreadLocalRandom.current().nextInt(users)));
+    }
+
+    @Benchmark
+    public String getPopularFilms() throws IOException, InterruptedException {
+        return get("/films/popular?count=10");
+    }
+
+    private String get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200)
+            throw new IllegalStateException("Запрос " + path + " завершился с кодом " + response.statusCode());
+        return response.body();
+    }
+}
@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Benchmark
+    public Film addFilm(FilmorateState state) {
+        return state.filmService.addFilm(Film.builder()
+                .name("Новый фильм")
+                .description("Описание")
+                .releaseDate(LocalDate.of(2000, 1, 1))
+                .duration(120L)
+                .mpa(Mpa.PG)
+                .genres(new LinkedHashSet<>(List.of(Genre.COMEDY, Genre.DRAMA)))
+                .build());
+    }
+
+    @Benchmark
+    public User addUser(FilmorateState state) {
+        long n = SEQUENCE.incrementAndGet();
+        return state.userService.addUser(User.builder()
+                .email("new" + n + "@ya.ru")
+                .login("new" + n)
+                .name("Новый пользователь")
+                .birthday(LocalDate.of(1990, 1, 1))
+                .build());
+    }
+}
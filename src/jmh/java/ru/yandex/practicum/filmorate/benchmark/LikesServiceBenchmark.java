@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LikesServiceBenchmark {
+    @Benchmark
+    public List<Film> getPopularFilms(FilmorateState state) {
+        return state.likesService.getPopularFilms(10);
+    }
+
+    @Benchmark
+    public List<Film> getRecommendations(FilmorateState state) {
+        return state.likesService.getRecommendations(state.randomSeededLiker(ThreadLocalRandom.current()), 10);
+    }
+
+    /**
+     * Лайк ставится и сразу снимается, чтобы объём таблицы лайков не рос между итерациями.
+     */
+    @Benchmark
+    public void addLike(FilmorateState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long filmId = state.randomFilm(random);
+        long userId = state.randomLiker(random);
+        state.likesService.addLike(filmId, userId);
+        state.likesService.deleteLike(filmId, userId);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Считает запросы к базе данных за итерацию и выводит их среднее число на одну операцию бенчмарка.
+ * Запросом считается каждый вызов execute* у Statement, пакет executeBatch считается одним запросом.
+ * Подключается параметром {@code -prof ru.yandex.practicum.filmorate.benchmark.QueryCountProfiler}.
+ */
+public class QueryCountProfiler implements InternalProfiler {
+    private static final LongAdder QUERIES = new LongAdder();
+
+    /**
+     * Оборачивает DataSource контекста приложения в счётчик запросов.
+     */
+    public static BeanPostProcessor dataSourceWrapper() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ? proxy(bean) : bean;
+            }
+        };
+    }
+
+    @Override
+    public String getDescription() {
+        return "Число запросов к базе данных на операцию";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        QUERIES.reset();
+    }
+
+    @Override
+    public List<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+                                                 IterationResult result) {
+        long ops = result.getMetadata().getAllOps();
+        double queriesPerOp = ops == 0 ? Double.NaN : (double) QUERIES.sum() / ops;
+        return List.of(new ScalarResult("db.queries.norm", queriesPerOp, "queries/op", AggregationPolicy.AVG));
+    }
+
+    private static Object proxy(Object target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (target instanceof Statement && method.getName().startsWith("execute"))
+                QUERIES.increment();
+            Object value;
+            try {
+                value = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return value instanceof Connection || value instanceof Statement ? proxy(value) : value;
+        };
+        ClassLoader classLoader = QueryCountProfiler.class.getClassLoader();
+        return Proxy.newProxyInstance(classLoader,
+                ClassUtils.getAllInterfacesForClass(target.getClass(), classLoader), handler);
+    }
+}
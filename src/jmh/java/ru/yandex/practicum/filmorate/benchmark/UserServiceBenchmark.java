@@ -0,0 +1,52 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+    @Benchmark
+    public List<User> getUsers(FilmorateState state) {
+        return state.userService.getUsers();
+    }
+
+    @Benchmark
+    public User getUser(FilmorateState state) {
+        return state.userService.getUser(state.randomUser(ThreadLocalRandom.current()));
+    }
+
+    @Benchmark
+    public List<User> getCommonFriends(FilmorateState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = state.randomUser(random);
+        long otherId = state.randomUser(random);
+        if (id == otherId)
+            otherId = id % state.users + 1;
+        return state.friendsService.getCommonFriends(id, otherId);
+    }
+
+    @Benchmark
+    public List<User> getSuggestions(FilmorateState state) {
+        return state.friendsService.getSuggestions(state.randomUser(ThreadLocalRandom.current()), 10);
+    }
+
+    @Benchmark
+    public List<User> getPath(FilmorateState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return state.friendsService.getPath(state.randomUser(random), state.randomUser(random), false);
+    }
+}
@@ -0,0 +1,74 @@
+package ru.yandex.practicum.filmorate;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * Неблокирующий стек для профиля reactive: WebFlux на Netty и R2DBC. R2DBC открывает ту же базу H2,
+ * что и spring.datasource.url, поэтому схема, справочники и рейтинг популярных фильмов по-прежнему
+ * инициализируются через JDBC. Фабрика соединений и менеджер транзакций не регистрируются как бины,
+ * чтобы не отключать автоконфигурацию DataSource и JDBC-транзакций.
+ * <p>
+ * Драйвер r2dbc-h2 выполняет запросы синхронно в вызывающем потоке, поэтому хранилища подписываются
+ * на запросы в отдельном планировщике, а не в потоках Netty. Пул соединений не используется: сессия
+ * встроенной H2 открывается без сетевого обмена, а r2dbc-pool под нагрузкой терял часть запросов на соединение.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfiguration {
+    private static final String H2_URL_PREFIX = "jdbc:h2:";
+
+    private final H2ConnectionFactory connectionFactory;
+    private final Scheduler databaseScheduler;
+
+    public ReactiveConfiguration(@Value("${spring.datasource.url}") String url,
+                                 @Value("${spring.datasource.username}") String username,
+                                 @Value("${spring.datasource.password}") String password,
+                                 @Value("${filmorate.r2dbc.threads:16}") int threads) {
+        if (!url.startsWith(H2_URL_PREFIX))
+            throw new IllegalStateException("Профиль reactive поддерживает только базу H2. Указано: " + url);
+        this.connectionFactory = new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                .url(url.substring(H2_URL_PREFIX.length()))
+                .username(username)
+                .password(password)
+                .build());
+        this.databaseScheduler = Schedulers.newBoundedElastic(threads, Integer.MAX_VALUE, "r2dbc-h2");
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public DatabaseClient databaseClient() {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @Bean
+    public Scheduler databaseScheduler() {
+        return databaseScheduler;
+    }
+
+    @PreDestroy
+    public void close() {
+        databaseScheduler.dispose();
+    }
+}
@@ -0,0 +1,46 @@
+package ru.yandex.practicum.filmorate;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Обработка HTTP-запросов на виртуальных потоках вместо пула потоков Tomcat.
+ * Включается свойством filmorate.web.virtual-threads.enabled и требует запуска на Java 21 или новее.
+ * Исполнитель создаётся через отражение, поэтому сборка остаётся совместимой с Java 11.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "filmorate.web.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadsExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            log.info("Запросы обрабатываются на виртуальных потоках.");
+            return executor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(String.format(
+                    "Виртуальные потоки доступны начиная с Java 21. Текущая версия: %s", Runtime.version()));
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Не удалось создать исполнитель на виртуальных потоках.", e);
+        }
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadsCustomizer(
+            ExecutorService virtualThreadsExecutor) {
+        return factory -> factory.addProtocolHandlerCustomizers(
+                protocolHandler -> protocolHandler.setExecutor(virtualThreadsExecutor));
+    }
+}
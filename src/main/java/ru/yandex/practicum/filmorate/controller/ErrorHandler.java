@@ -54,6 +54,13 @@ public class ErrorHandler {
         return new ErrorResponse("Рейтинг MPA не найден", e.getMessage());
     }
 
+    @ExceptionHandler(LikesQueueOverflowException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleLikesQueueOverflowException(final LikesQueueOverflowException e) {
+        log.warn("{}", e.getMessage());
+        return new ErrorResponse("Сервис перегружен", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleException(Exception e) {
@@ -1,28 +1,67 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.yandex.practicum.filmorate.exceptions.ValidationException;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.ImportResult;
+import ru.yandex.practicum.filmorate.service.BulkImporter;
 import ru.yandex.practicum.filmorate.service.film.FilmService;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/films")
 public class FilmController {
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String DEFAULT_PAGE_SIZE = "100";
+
     private final FilmService filmService;
+    private final ObjectMapper objectMapper;
+    private final BulkImporter bulkImporter;
 
-    public FilmController(FilmService filmService) {
+    public FilmController(FilmService filmService, ObjectMapper objectMapper, BulkImporter bulkImporter) {
         this.filmService = filmService;
+        this.objectMapper = objectMapper;
+        this.bulkImporter = bulkImporter;
     }
 
-    @GetMapping
+    @GetMapping(params = {"!after", "!limit"})
     public List<Film> getFilms() {
         return filmService.getFilms();
     }
 
+    @GetMapping
+    public List<Film> getFilms(@RequestParam(defaultValue = "0") long after,
+                               @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE)
+            throw new ValidationException(String.format("Параметр limit должен быть от 1 до %d. Введено: %d",
+                    MAX_PAGE_SIZE, limit));
+        return filmService.getFilms(after, limit);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFilms() {
+        return NdjsonResponse.of(objectMapper, Film.class, filmService::forEachFilm);
+    }
+
+    @GetMapping("/search")
+    public List<Film> searchFilms(@RequestParam String q, @RequestParam(defaultValue = "10") int count) {
+        if (count <= 0 || count > MAX_PAGE_SIZE)
+            throw new ValidationException(String.format("Параметр count должен быть от 1 до %d. Введено: %d",
+                    MAX_PAGE_SIZE, count));
+        return filmService.searchFilms(q, count);
+    }
+
     @GetMapping("/{id}")
     public Film getFilm(@PathVariable Long id) {
         return filmService.getFilm(id);
@@ -34,13 +73,19 @@ public class FilmController {
         return filmService.addFilm(film);
     }
 
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public List<ImportResult> addFilms(InputStream body) throws IOException {
+        return bulkImporter.importValues(body, Film.class, FilmController::commonCheckFilm,
+                filmService::addFilms, film -> filmService.addFilm(film).getId());
+    }
+
     @PutMapping
     public Film updateFilm(@Valid @RequestBody Film film) {
         commonCheckFilm(film);
         return filmService.updateFilm(film);
     }
 
-    private void commonCheckFilm(Film film) {
+    static void commonCheckFilm(Film film) {
         if (film.getReleaseDate().isBefore(LocalDate.of(1895, 12, 28)))
             throw new ValidationException("Дата релиза не должна быть раньше 28 декабря 1895 года. Введено: "
                     + film.getReleaseDate());
@@ -1,6 +1,7 @@
 package ru.yandex.practicum.filmorate.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.*;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.service.user.FriendsService;
@@ -8,6 +9,7 @@ import ru.yandex.practicum.filmorate.service.user.FriendsService;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/users")
 public class FriendsController {
     private final FriendsService friendsService;
@@ -32,8 +34,24 @@ public class FriendsController {
         return friendsService.getFriends(id);
     }
 
+    @GetMapping("/{id}/friends/requests")
+    public List<User> getIncomingRequests(@PathVariable Long id) {
+        return friendsService.getIncomingRequests(id);
+    }
+
+    @GetMapping("/{id}/friends/suggestions")
+    public List<User> getSuggestions(@PathVariable Long id, @RequestParam(defaultValue = "10") int count) {
+        return friendsService.getSuggestions(id, count);
+    }
+
     @GetMapping("/{id}/friends/common/{otherId}")
     public List<User> getCommonFriends(@PathVariable Long id, @PathVariable Long otherId) {
         return friendsService.getCommonFriends(id, otherId);
     }
+
+    @GetMapping("/{id}/path/{otherId}")
+    public List<User> getPath(@PathVariable Long id, @PathVariable Long otherId,
+                              @RequestParam(defaultValue = "false") boolean confirmed) {
+        return friendsService.getPath(id, otherId, confirmed);
+    }
 }
@@ -1,5 +1,6 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.*;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.service.film.LikesService;
@@ -7,6 +8,7 @@ import ru.yandex.practicum.filmorate.service.film.LikesService;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/films")
 public class LikesController {
     private final LikesService likesService;
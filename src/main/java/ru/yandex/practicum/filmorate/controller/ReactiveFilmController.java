@@ -0,0 +1,49 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.film.ReactiveFilmService;
+
+import javax.validation.Valid;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/films")
+public class ReactiveFilmController {
+    private final ReactiveFilmService filmService;
+
+    public ReactiveFilmController(ReactiveFilmService filmService) {
+        this.filmService = filmService;
+    }
+
+    @GetMapping
+    public Flux<Film> getFilms() {
+        return filmService.getFilms();
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Film> streamFilms() {
+        return filmService.getFilms();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Film> getFilm(@PathVariable Long id) {
+        return filmService.getFilm(id);
+    }
+
+    @PostMapping
+    public Mono<Film> addFilm(@Valid @RequestBody Film film) {
+        FilmController.commonCheckFilm(film);
+        return filmService.addFilm(film);
+    }
+
+    @PutMapping
+    public Mono<Film> updateFilm(@Valid @RequestBody Film film) {
+        FilmController.commonCheckFilm(film);
+        return filmService.updateFilm(film);
+    }
+}
@@ -0,0 +1,44 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.user.ReactiveFriendsService;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/users")
+public class ReactiveFriendsController {
+    private final ReactiveFriendsService friendsService;
+
+    public ReactiveFriendsController(ReactiveFriendsService friendsService) {
+        this.friendsService = friendsService;
+    }
+
+    @PutMapping("/{id}/friends/{friendId}")
+    public Mono<Void> addFriend(@PathVariable Long id, @PathVariable Long friendId) {
+        return friendsService.addFriend(id, friendId);
+    }
+
+    @DeleteMapping("/{id}/friends/{friendId}")
+    public Mono<Void> deleteFriend(@PathVariable Long id, @PathVariable Long friendId) {
+        return friendsService.deleteFriend(id, friendId);
+    }
+
+    @GetMapping("/{id}/friends")
+    public Flux<User> getFriends(@PathVariable Long id) {
+        return friendsService.getFriends(id);
+    }
+
+    @GetMapping("/{id}/friends/requests")
+    public Flux<User> getIncomingRequests(@PathVariable Long id) {
+        return friendsService.getIncomingRequests(id);
+    }
+
+    @GetMapping("/{id}/friends/common/{otherId}")
+    public Flux<User> getCommonFriends(@PathVariable Long id, @PathVariable Long otherId) {
+        return friendsService.getCommonFriends(id, otherId);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.film.ReactiveLikesService;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/films")
+public class ReactiveLikesController {
+    private final ReactiveLikesService likesService;
+
+    public ReactiveLikesController(ReactiveLikesService likesService) {
+        this.likesService = likesService;
+    }
+
+    @PutMapping("{filmId}/like/{userId}")
+    public Mono<Void> addLike(@PathVariable Long filmId, @PathVariable Long userId) {
+        return likesService.addLike(filmId, userId);
+    }
+
+    @DeleteMapping("/{filmId}/like/{userId}")
+    public Mono<Void> deleteLike(@PathVariable Long filmId, @PathVariable Long userId) {
+        return likesService.deleteLike(filmId, userId);
+    }
+
+    @GetMapping("/popular")
+    public Flux<Film> getPopularFilms(@RequestParam(defaultValue = "10") int count) {
+        return likesService.getPopularFilms(count);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.user.ReactiveUserService;
+
+import javax.validation.Valid;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/users")
+public class ReactiveUserController {
+    private final ReactiveUserService userService;
+
+    public ReactiveUserController(ReactiveUserService userService) {
+        this.userService = userService;
+    }
+
+    @GetMapping
+    public Flux<User> getUsers() {
+        return userService.getUsers();
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<User> streamUsers() {
+        return userService.getUsers();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<User> getUser(@PathVariable Long id) {
+        return userService.getUser(id);
+    }
+
+    @PostMapping
+    public Mono<User> addUser(@Valid @RequestBody User user) {
+        UserController.commonCheckUser(user);
+        return userService.addUser(user);
+    }
+
+    @PutMapping
+    public Mono<User> updateUser(@Valid @RequestBody User user) {
+        UserController.commonCheckUser(user);
+        return userService.updateUser(user);
+    }
+}
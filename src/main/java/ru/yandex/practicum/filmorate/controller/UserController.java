@@ -1,37 +1,90 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.ImportResult;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.BulkImporter;
+import ru.yandex.practicum.filmorate.service.film.LikesService;
 import ru.yandex.practicum.filmorate.service.user.UserService;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/users")
 public class UserController {
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String DEFAULT_PAGE_SIZE = "100";
+
     private final UserService userService;
+    private final LikesService likesService;
+    private final ObjectMapper objectMapper;
+    private final BulkImporter bulkImporter;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, LikesService likesService, ObjectMapper objectMapper,
+                          BulkImporter bulkImporter) {
         this.userService = userService;
+        this.likesService = likesService;
+        this.objectMapper = objectMapper;
+        this.bulkImporter = bulkImporter;
     }
 
-    @GetMapping
+    @GetMapping(params = {"!after", "!limit"})
     public List<User> getUsers() {
         return userService.getUsers();
     }
 
+    @GetMapping
+    public List<User> getUsers(@RequestParam(defaultValue = "0") long after,
+                               @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE)
+            throw new ValidationException(String.format("Параметр limit должен быть от 1 до %d. Введено: %d",
+                    MAX_PAGE_SIZE, limit));
+        return userService.getUsers(after, limit);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        return NdjsonResponse.of(objectMapper, User.class, userService::forEachUser);
+    }
+
     @GetMapping("/{id}")
     public User getUser(@PathVariable Long id) {
         return userService.getUser(id);
     }
 
+    @GetMapping("/{id}/likes")
+    public List<Film> getLikedFilms(@PathVariable Long id) {
+        return likesService.getLikedFilms(id);
+    }
+
+    @GetMapping("/{id}/recommendations")
+    public List<Film> getRecommendations(@PathVariable Long id, @RequestParam(defaultValue = "10") int count) {
+        return likesService.getRecommendations(id, count);
+    }
+
     @PostMapping
     public User addUser(@Valid @RequestBody User user) {
         commonCheckUser(user);
         return userService.addUser(user);
     }
 
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public List<ImportResult> addUsers(InputStream body) throws IOException {
+        return bulkImporter.importValues(body, User.class, UserController::commonCheckUser,
+                userService::addUsers, user -> userService.addUser(user).getId());
+    }
+
     @DeleteMapping("/{id}")
     public void deleteUser(@PathVariable Long id) {
         userService.deleteUser(id);
@@ -43,7 +96,7 @@ public class UserController {
         return userService.updateUser(user);
     }
 
-    private void commonCheckUser(User user) {
+    static void commonCheckUser(User user) {
         if (user.getName() == null || user.getName().isBlank())
             user.setName(user.getLogin());
     }
@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.exceptions;
+
+public class LikesQueueOverflowException extends RuntimeException {
+    public LikesQueueOverflowException(String message) {
+        super(message);
+    }
+}
@@ -2,13 +2,13 @@ package ru.yandex.practicum.filmorate.model;
 
 import lombok.Builder;
 import lombok.Data;
+import ru.yandex.practicum.filmorate.util.LongSet;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.Size;
 import java.time.LocalDate;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -16,7 +16,7 @@ import java.util.Set;
 @Builder(toBuilder = true)
 public class Film {
     private long id;
-    private Set<Long> likes = new HashSet<>();
+    private Set<Long> likes = new LongSet();
     @NotBlank
     private String name;
     @NotNull
@@ -0,0 +1,36 @@
+package ru.yandex.practicum.filmorate.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportResult {
+    private final int index;
+    private final Long id;
+    private final String error;
+
+    private ImportResult(int index, Long id, String error) {
+        this.index = index;
+        this.id = id;
+        this.error = error;
+    }
+
+    public static ImportResult created(int index, Long id) {
+        return new ImportResult(index, id, null);
+    }
+
+    public static ImportResult failed(int index, String error) {
+        return new ImportResult(index, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
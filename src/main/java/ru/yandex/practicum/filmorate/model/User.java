@@ -2,19 +2,20 @@ package ru.yandex.practicum.filmorate.model;
 
 import lombok.Builder;
 import lombok.Data;
+import ru.yandex.practicum.filmorate.util.LongStatusMap;
 
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.PastOrPresent;
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.util.Map;
 
 @Data
 @Builder(toBuilder = true)
 public class User {
     private long id;
-    private HashMap<Long, Status> friends = new HashMap<>();
+    private Map<Long, Status> friends = new LongStatusMap();
     @Email
     @NotBlank
     private String email;
@@ -0,0 +1,39 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Откладывает изменение состояния в памяти (кэшей, рейтингов, индексов) до фиксации текущей транзакции,
+ * чтобы параллельные запросы не прочитали и не закэшировали ещё не зафиксированные или уже устаревшие данные.
+ * Вне транзакции изменение выполняется сразу, при откате транзакции не выполняется вовсе
+ * или выполняется переданное действие отката.
+ */
+public final class AfterCommit {
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        run(action, () -> {
+        });
+    }
+
+    public static void run(Runnable action, Runnable rollbackAction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED)
+                    rollbackAction.run();
+            }
+        });
+    }
+}
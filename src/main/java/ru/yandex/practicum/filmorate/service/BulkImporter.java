@@ -0,0 +1,122 @@
+package ru.yandex.practicum.filmorate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.ImportResult;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class BulkImporter {
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+
+    public BulkImporter(ObjectMapper objectMapper,
+                        Validator validator,
+                        @Value("${filmorate.import.batch-size:1000}") int batchSize) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Читает JSON-массив или поток NDJSON поэлементно, проверяет каждую запись и сохраняет корректные
+     * пакетами. Если пакет не удалось сохранить целиком, его записи сохраняются по одной,
+     * чтобы ошибка одной записи не отменяла остальные.
+     */
+    public <T> List<ImportResult> importValues(InputStream in, Class<T> type, Consumer<T> check,
+                                               Function<List<T>, List<Long>> batchInsert,
+                                               Function<T, Long> insert) throws IOException {
+        List<ImportResult> results = new ArrayList<>();
+        List<T> batch = new ArrayList<>(batchSize);
+        List<Integer> batchIndexes = new ArrayList<>(batchSize);
+        int index = 0;
+
+        try (MappingIterator<JsonNode> nodes = objectMapper.readerFor(JsonNode.class).readValues(in)) {
+            while (nodes.hasNextValue()) {
+                JsonNode node = nodes.nextValue();
+                int current = index++;
+                String error;
+                try {
+                    T value = objectMapper.treeToValue(node, type);
+                    error = validate(value, check);
+                    if (error == null) {
+                        batch.add(value);
+                        batchIndexes.add(current);
+                    }
+                } catch (JsonProcessingException e) {
+                    error = e.getOriginalMessage();
+                }
+                if (error != null)
+                    results.add(ImportResult.failed(current, error));
+                if (batch.size() >= batchSize)
+                    flush(batch, batchIndexes, results, batchInsert, insert);
+            }
+        } catch (JsonProcessingException e) {
+            results.add(ImportResult.failed(index, "Некорректный JSON, загрузка остановлена: "
+                    + e.getOriginalMessage()));
+        }
+        flush(batch, batchIndexes, results, batchInsert, insert);
+
+        results.sort(Comparator.comparingInt(ImportResult::getIndex));
+        log.info("Загружено записей {}: {} из {}", type.getSimpleName(),
+                results.stream().filter(result -> result.getError() == null).count(), index);
+        return results;
+    }
+
+    private <T> String validate(T value, Consumer<T> check) {
+        Set<ConstraintViolation<T>> violations = validator.validate(value);
+        if (!violations.isEmpty())
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        try {
+            check.accept(value);
+            return null;
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    private <T> void flush(List<T> batch, List<Integer> batchIndexes, List<ImportResult> results,
+                           Function<List<T>, List<Long>> batchInsert, Function<T, Long> insert) {
+        if (batch.isEmpty())
+            return;
+        try {
+            List<Long> ids = batchInsert.apply(batch);
+            for (int i = 0; i < ids.size(); i++)
+                results.add(ImportResult.created(batchIndexes.get(i), ids.get(i)));
+        } catch (RuntimeException e) {
+            log.warn("Пакет из {} записей не сохранён, сохранение по одной: {}", batch.size(), e.getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    results.add(ImportResult.created(batchIndexes.get(i), insert.apply(batch.get(i))));
+                } catch (RuntimeException itemException) {
+                    results.add(ImportResult.failed(batchIndexes.get(i),
+                            NestedExceptionUtils.getMostSpecificCause(itemException).getMessage()));
+                }
+            }
+        }
+        batch.clear();
+        batchIndexes.clear();
+    }
+}
@@ -0,0 +1,93 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Выполняет два независимых чтения из хранилища параллельно и объединяет результаты.
+ * Первое чтение выполняется в вызывающем потоке, второе - в ограниченном пуле. Если свободного потока нет,
+ * второе чтение выполняет вызывающий поток, поэтому вложенные вызовы не могут заблокировать друг друга.
+ * Исключения пробрасываются в том же порядке, что и при последовательном выполнении: ошибка первого чтения
+ * имеет приоритет над ошибкой второго. Внутри транзакции чтения выполняются последовательно,
+ * чтобы оба шли через соединение транзакции.
+ */
+@Slf4j
+@Component
+public class FanOutExecutor {
+    private final ThreadPoolExecutor executor;
+
+    public FanOutExecutor(@Value("${filmorate.fan-out.enabled:false}") boolean enabled,
+                          @Value("${filmorate.fan-out.threads:16}") int threads) {
+        if (enabled) {
+            executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    new DaemonThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            log.info("Параллельное чтение из хранилища включено: потоков {}", threads);
+        } else {
+            executor = null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null)
+            executor.shutdownNow();
+    }
+
+    public <A, B, R> R join(Supplier<A> first, Supplier<B> second, BiFunction<A, B, R> combiner) {
+        if (executor == null || TransactionSynchronizationManager.isActualTransactionActive())
+            return combiner.apply(first.get(), second.get());
+
+        Future<B> secondResult = executor.submit(second::get);
+        A firstValue;
+        try {
+            firstValue = first.get();
+        } catch (RuntimeException | Error e) {
+            secondResult.cancel(false);
+            throw e;
+        }
+        return combiner.apply(firstValue, await(secondResult));
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Ожидание параллельного чтения прервано.");
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "fan-out-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.util.LongSet;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@Slf4j
+@Component
+public class FilmCache {
+    private final Cache<Long, Film> cache;
+
+    public FilmCache(MeterRegistry meterRegistry,
+                     @Value("${filmorate.cache.films.enabled:true}") boolean enabled,
+                     @Value("${filmorate.cache.films.maximum-size:10000}") long maximumSize,
+                     @Value("${filmorate.cache.films.ttl:10m}") Duration ttl) {
+        if (enabled) {
+            cache = Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfterWrite(ttl)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "films");
+            log.info("Кэш фильмов включён: размер {}, время жизни {}", maximumSize, ttl);
+        } else {
+            cache = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public Film get(Long id, Function<Long, Film> loader) {
+        if (cache == null)
+            return loader.apply(id);
+        return copy(cache.get(id, loader));
+    }
+
+    public Map<Long, Film> getAll(Collection<Long> ids, Function<List<Long>, Map<Long, Film>> loader) {
+        if (cache == null)
+            return loader.apply(new ArrayList<>(ids));
+        Map<Long, Film> films = cache.getAll(ids, missingIds -> {
+            List<Long> missing = new ArrayList<>();
+            missingIds.forEach(missing::add);
+            return loader.apply(missing);
+        });
+        Map<Long, Film> copies = new HashMap<>(films.size() * 2);
+        films.forEach((id, film) -> copies.put(id, copy(film)));
+        return copies;
+    }
+
+    public void invalidate(Long id) {
+        if (cache != null)
+            cache.invalidate(id);
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        if (cache != null)
+            cache.invalidateAll(ids);
+    }
+
+    /**
+     * Фильм в кэше общий для всех запросов, поэтому наружу отдаётся копия с собственными лайками и жанрами.
+     */
+    private static Film copy(Film film) {
+        if (film == null)
+            return null;
+        LongSet likes = null;
+        if (film.getLikes() != null) {
+            likes = new LongSet(film.getLikes().size());
+            likes.addAll(film.getLikes());
+        }
+        return film.toBuilder()
+                .likes(likes)
+                .genres(film.getGenres() == null ? null : new LinkedHashSet<>(film.getGenres()))
+                .build();
+    }
+}
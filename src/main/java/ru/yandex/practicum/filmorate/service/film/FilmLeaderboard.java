@@ -0,0 +1,108 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.interfaces.LikesStorage;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+@Slf4j
+@Component
+public class FilmLeaderboard {
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::getLikesCount).reversed()
+            .thenComparingLong(Entry::getFilmId);
+
+    private final LikesStorage likesStorage;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(ORDER);
+
+    public FilmLeaderboard(LikesStorage likesStorage) {
+        this.likesStorage = likesStorage;
+    }
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        entries.clear();
+        ranking.clear();
+        likesStorage.loadLikesCount().forEach((filmId, likesCount) -> {
+            Entry entry = new Entry(filmId, likesCount);
+            entries.put(filmId, entry);
+            ranking.add(entry);
+        });
+        log.debug("Рейтинг популярных фильмов построен, фильмов: {}", entries.size());
+    }
+
+    public synchronized void addFilm(long filmId) {
+        if (!entries.containsKey(filmId))
+            put(new Entry(filmId, 0));
+    }
+
+    public synchronized void addLike(long filmId) {
+        shift(filmId, 1);
+    }
+
+    public synchronized void deleteLike(long filmId) {
+        shift(filmId, -1);
+    }
+
+    /**
+     * Исправляет число лайков одного фильма сдвигом на разницу с текущим значением, не затрагивая остальные фильмы.
+     */
+    public synchronized void correctLikesCount(long filmId, int likesCount) {
+        Entry entry = entries.get(filmId);
+        shift(filmId, likesCount - (entry == null ? 0 : entry.getLikesCount()));
+    }
+
+    public synchronized List<Long> getTop(int count) {
+        List<Long> top = new ArrayList<>(Math.max(0, Math.min(count, ranking.size())));
+        Iterator<Entry> iterator = ranking.iterator();
+        while (top.size() < count && iterator.hasNext())
+            top.add(iterator.next().getFilmId());
+        return top;
+    }
+
+    public synchronized void getLikesCount(long[] filmIds, int count, int[] likesCount) {
+        for (int i = 0; i < count; i++) {
+            Entry entry = entries.get(filmIds[i]);
+            likesCount[i] = entry == null ? 0 : entry.getLikesCount();
+        }
+    }
+
+    private void shift(long filmId, int delta) {
+        Entry entry = entries.get(filmId);
+        int likesCount = entry == null ? 0 : entry.getLikesCount();
+        if (entry != null)
+            ranking.remove(entry);
+        put(new Entry(filmId, Math.max(0, likesCount + delta)));
+    }
+
+    private void put(Entry entry) {
+        entries.put(entry.getFilmId(), entry);
+        ranking.add(entry);
+    }
+
+    private static class Entry {
+        private final long filmId;
+        private final int likesCount;
+
+        private Entry(long filmId, int likesCount) {
+            this.filmId = filmId;
+            this.likesCount = likesCount;
+        }
+
+        private long getFilmId() {
+            return filmId;
+        }
+
+        private int getLikesCount() {
+            return likesCount;
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.interfaces.LikesStorage;
+import ru.yandex.practicum.filmorate.util.IntSet;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Рекомендации фильмов по схожести фильмов (item-item). Лайки хранятся в памяти в виде разреженной матрицы
+ * пользователь × фильм на массивах int, для каждого фильма заранее вычисляются ближайшие соседи по косинусной мере
+ * совместных лайков. Рекомендации пользователю - сумма схожести соседей понравившихся ему фильмов.
+ * <p>
+ * Матрица строится в фоне после запуска приложения: чтение лайков из базы и расчёт соседей выполняются без блокировки,
+ * а лайки, поставленные за это время, запоминаются и применяются к новой матрице при её подключении.
+ * Лайк помечает устаревшими соседей самого фильма и тех понравившихся пользователю фильмов, среди соседей которых
+ * этот фильм уже есть. Они пересчитываются в фоне в пуле потоков, после чего фильм добавляется в списки своих новых
+ * соседей без их пересчёта (мера симметрична). До пересчёта запросы используют прежних соседей и сами соседей
+ * не считают. Остальные изменения оценок уточняются при периодической полной перестройке.
+ * Рабочие массивы расчёта соседей берутся из общего набора не больше числа потоков пула.
+ */
+@Slf4j
+@Component
+public class FilmRecommender {
+    private final LikesStorage likesStorage;
+    private final LikesWriteBehindQueue likesQueue;
+    private final boolean enabled;
+    private final int neighboursCount;
+    private final ForkJoinPool pool;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    private final Object refreshLock = new Object();
+    private final Deque<Scratch> scratchPool = new ConcurrentLinkedDeque<>();
+    private LikesMatrix matrix = new LikesMatrix();
+    private Map<Long, Neighbours> neighbours = new ConcurrentHashMap<>();
+    private List<LikeEvent> pendingEvents;
+    private Set<Long> staleFilms = new HashSet<>();
+    private boolean refreshScheduled;
+    private volatile boolean ready;
+
+    public FilmRecommender(LikesStorage likesStorage,
+                           LikesWriteBehindQueue likesQueue,
+                           @Value("${filmorate.recommendations.enabled:true}") boolean enabled,
+                           @Value("${filmorate.recommendations.neighbours:20}") int neighboursCount,
+                           @Value("${filmorate.recommendations.parallelism:0}") int parallelism) {
+        this.likesStorage = likesStorage;
+        this.likesQueue = likesQueue;
+        this.enabled = enabled;
+        this.neighboursCount = neighboursCount;
+        this.pool = enabled
+                ? new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors())
+                : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled)
+            return;
+        Thread builder = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Не удалось построить матрицу рекомендаций: {}", e.getMessage());
+            }
+        }, "film-recommender");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pool != null)
+            pool.shutdownNow();
+    }
+
+    @Scheduled(initialDelayString = "${filmorate.recommendations.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${filmorate.recommendations.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        if (!enabled)
+            return;
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                pendingEvents = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            LikesMatrix loaded = new LikesMatrix();
+            Map<Long, Neighbours> computed = new ConcurrentHashMap<>();
+            try {
+                if (likesQueue.isEnabled())
+                    likesQueue.flush();
+                likesStorage.forEachLike(loaded::addLike);
+                pool.submit(() -> IntStream.range(0, loaded.filmCount).parallel()
+                        .forEach(film -> computed.put(loaded.filmIds[film], computeNeighbours(loaded, film)))).join();
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    pendingEvents = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            lock.writeLock().lock();
+            try {
+                pendingEvents.forEach(event -> apply(loaded, computed, event));
+                matrix = loaded;
+                neighbours = computed;
+                pendingEvents = null;
+                ready = true;
+                scheduleRefresh();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Матрица рекомендаций построена за {} мс: фильмов {}, пользователей {}",
+                    System.currentTimeMillis() - start, loaded.filmCount, loaded.userCount);
+        }
+    }
+
+    public void addLike(long filmId, long userId) {
+        update(new LikeEvent(filmId, userId, true));
+    }
+
+    public void deleteLike(long filmId, long userId) {
+        update(new LikeEvent(filmId, userId, false));
+    }
+
+    /**
+     * Пересчитывает в пуле соседей фильмов, помеченных устаревшими, и ждёт окончания пересчёта.
+     */
+    public void refreshNeighbours() {
+        if (enabled)
+            pool.submit(this::refreshStaleNeighbours).join();
+    }
+
+    /**
+     * Каждый фильм считается под отдельной блокировкой чтения, поэтому лайки не ждут пересчёта всех фильмов.
+     */
+    private void refreshStaleNeighbours() {
+        synchronized (refreshLock) {
+            while (true) {
+                Set<Long> filmIds;
+                lock.writeLock().lock();
+                try {
+                    if (staleFilms.isEmpty()) {
+                        refreshScheduled = false;
+                        return;
+                    }
+                    filmIds = staleFilms;
+                    staleFilms = new HashSet<>();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                for (long filmId : filmIds) {
+                    lock.readLock().lock();
+                    try {
+                        Integer film = matrix.filmIndexes.get(filmId);
+                        if (film != null)
+                            refresh(filmId, computeNeighbours(matrix, film));
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                }
+            }
+        }
+    }
+
+    public List<Long> recommend(long userId, int count) {
+        if (!ready || count <= 0)
+            return new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            IntSet likedFilms = matrix.likedFilms(userId);
+            if (likedFilms == null || likedFilms.isEmpty())
+                return new ArrayList<>();
+            Map<Long, Float> scores = new HashMap<>();
+            for (int i = 0; i < likedFilms.size(); i++) {
+                Neighbours filmNeighbours = neighbours.get(matrix.filmIds[likedFilms.get(i)]);
+                if (filmNeighbours == null)
+                    continue;
+                for (int j = 0; j < filmNeighbours.filmIds.length; j++) {
+                    long filmId = filmNeighbours.filmIds[j];
+                    if (!matrix.hasLike(filmId, likedFilms))
+                        scores.merge(filmId, filmNeighbours.scores[j], Float::sum);
+                }
+            }
+            TopFilms top = new TopFilms(count);
+            scores.forEach(top::offer);
+            return top.toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Сохраняет новых соседей фильма и добавляет фильм в списки соседей, где его оценка попадает в лучшие.
+     */
+    private void refresh(long filmId, Neighbours filmNeighbours) {
+        neighbours.put(filmId, filmNeighbours);
+        for (int i = 0; i < filmNeighbours.filmIds.length; i++) {
+            long neighbourId = filmNeighbours.filmIds[i];
+            Neighbours other = neighbours.get(neighbourId);
+            if (other != null)
+                neighbours.put(neighbourId, other.with(filmId, filmNeighbours.scores[i], neighboursCount));
+        }
+    }
+
+    private Neighbours computeNeighbours(LikesMatrix matrix, int film) {
+        Scratch scratch = scratchPool.pollFirst();
+        if (scratch == null || scratch.counts.length < matrix.filmCount)
+            scratch = new Scratch(matrix.filmCount + matrix.filmCount / 4);
+        try {
+            return matrix.neighbours(film, neighboursCount, scratch);
+        } finally {
+            if (scratchPool.size() < pool.getParallelism())
+                scratchPool.offerFirst(scratch);
+        }
+    }
+
+    private void update(LikeEvent event) {
+        if (!enabled)
+            return;
+        lock.writeLock().lock();
+        try {
+            if (pendingEvents != null)
+                pendingEvents.add(event);
+            apply(matrix, neighbours, event);
+            scheduleRefresh();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Совместные лайки меняются у фильма события и у каждого фильма пользователя. Пересчитываются только фильм события
+     * и те фильмы пользователя, в списке соседей которых он уже есть: их оценка для него устарела. В остальные списки
+     * фильм попадает после пересчёта своих соседей.
+     */
+    private void apply(LikesMatrix matrix, Map<Long, Neighbours> neighbours, LikeEvent event) {
+        if (event.added)
+            matrix.addLike(event.filmId, event.userId);
+        else
+            matrix.deleteLike(event.filmId, event.userId);
+        staleFilms.add(event.filmId);
+        IntSet likedFilms = matrix.likedFilms(event.userId);
+        if (likedFilms != null) {
+            for (int i = 0; i < likedFilms.size(); i++) {
+                long filmId = matrix.filmIds[likedFilms.get(i)];
+                Neighbours filmNeighbours = neighbours.get(filmId);
+                if (filmNeighbours != null && filmNeighbours.contains(event.filmId))
+                    staleFilms.add(filmId);
+            }
+        }
+    }
+
+    private void scheduleRefresh() {
+        if (refreshScheduled || staleFilms.isEmpty() || pool.isShutdown())
+            return;
+        refreshScheduled = true;
+        pool.execute(() -> {
+            try {
+                refreshStaleNeighbours();
+            } catch (RuntimeException e) {
+                log.warn("Не удалось пересчитать соседей фильмов: {}", e.getMessage());
+                lock.writeLock().lock();
+                try {
+                    refreshScheduled = false;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        });
+    }
+
+    private static class LikesMatrix {
+        private final Map<Long, Integer> filmIndexes = new HashMap<>();
+        private final Map<Long, Integer> userIndexes = new HashMap<>();
+        private long[] filmIds = new long[16];
+        private IntSet[] filmUsers = new IntSet[16];
+        private IntSet[] userFilms = new IntSet[16];
+        private int filmCount;
+        private int userCount;
+
+        private void addLike(long filmId, long userId) {
+            int film = filmIndexes.computeIfAbsent(filmId, this::addFilm);
+            int user = userIndexes.computeIfAbsent(userId, id -> addUser());
+            filmUsers[film].add(user);
+            userFilms[user].add(film);
+        }
+
+        private void deleteLike(long filmId, long userId) {
+            Integer film = filmIndexes.get(filmId);
+            Integer user = userIndexes.get(userId);
+            if (film == null || user == null)
+                return;
+            filmUsers[film].remove(user);
+            userFilms[user].remove(film);
+        }
+
+        private IntSet likedFilms(long userId) {
+            Integer user = userIndexes.get(userId);
+            return user == null ? null : userFilms[user];
+        }
+
+        private boolean hasLike(long filmId, IntSet likedFilms) {
+            Integer film = filmIndexes.get(filmId);
+            return film != null && likedFilms.contains(film);
+        }
+
+        private Neighbours neighbours(int film, int limit, Scratch scratch) {
+            int[] counts = scratch.counts;
+            int[] touched = scratch.touched;
+            int touchedCount = 0;
+            IntSet users = filmUsers[film];
+            for (int i = 0; i < users.size(); i++) {
+                IntSet films = userFilms[users.get(i)];
+                for (int j = 0; j < films.size(); j++) {
+                    int other = films.get(j);
+                    if (other != film && counts[other]++ == 0)
+                        touched[touchedCount++] = other;
+                }
+            }
+            TopFilms top = new TopFilms(limit);
+            for (int i = 0; i < touchedCount; i++) {
+                int other = touched[i];
+                top.offer(filmIds[other],
+                        (float) (counts[other] / Math.sqrt((double) users.size() * filmUsers[other].size())));
+                counts[other] = 0;
+            }
+            int count = top.drain();
+            long[] neighbourIds = new long[count];
+            float[] neighbourScores = new float[count];
+            for (int i = 0; i < count; i++) {
+                neighbourIds[i] = top.filmId(i);
+                neighbourScores[i] = top.score(i);
+            }
+            return new Neighbours(neighbourIds, neighbourScores);
+        }
+
+        private int addFilm(long filmId) {
+            if (filmCount == filmIds.length) {
+                filmIds = Arrays.copyOf(filmIds, filmCount * 2);
+                filmUsers = Arrays.copyOf(filmUsers, filmCount * 2);
+            }
+            filmIds[filmCount] = filmId;
+            filmUsers[filmCount] = new IntSet();
+            return filmCount++;
+        }
+
+        private int addUser() {
+            if (userCount == userFilms.length)
+                userFilms = Arrays.copyOf(userFilms, userCount * 2);
+            userFilms[userCount] = new IntSet();
+            return userCount++;
+        }
+    }
+
+    private static class Scratch {
+        private final int[] counts;
+        private final int[] touched;
+
+        private Scratch(int size) {
+            this.counts = new int[size];
+            this.touched = new int[size];
+        }
+    }
+
+    private static class Neighbours {
+        private final long[] filmIds;
+        private final float[] scores;
+
+        private Neighbours(long[] filmIds, float[] scores) {
+            this.filmIds = filmIds;
+            this.scores = scores;
+        }
+
+        private boolean contains(long filmId) {
+            for (long neighbourId : filmIds) {
+                if (neighbourId == filmId)
+                    return true;
+            }
+            return false;
+        }
+
+        /**
+         * Возвращает список с новой оценкой фильма, оставляя не больше limit лучших соседей.
+         */
+        private Neighbours with(long filmId, float score, int limit) {
+            TopFilms top = new TopFilms(limit);
+            for (int i = 0; i < filmIds.length; i++) {
+                if (filmIds[i] != filmId)
+                    top.offer(filmIds[i], scores[i]);
+            }
+            top.offer(filmId, score);
+            int count = top.drain();
+            long[] neighbourIds = new long[count];
+            float[] neighbourScores = new float[count];
+            for (int i = 0; i < count; i++) {
+                neighbourIds[i] = top.filmId(i);
+                neighbourScores[i] = top.score(i);
+            }
+            return new Neighbours(neighbourIds, neighbourScores);
+        }
+    }
+
+    private static class LikeEvent {
+        private final long filmId;
+        private final long userId;
+        private final boolean added;
+
+        private LikeEvent(long filmId, long userId, boolean added) {
+            this.filmId = filmId;
+            this.userId = userId;
+            this.added = added;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.interfaces.FilmStorage;
+import ru.yandex.practicum.filmorate.util.LongLongMap;
+import ru.yandex.practicum.filmorate.util.SearchTerms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Полнотекстовый поиск по названиям и описаниям фильмов. Инвертированный индекс хранит для каждого слова
+ * отсортированный список внутренних номеров фильмов и вес вхождения: слово из названия весит больше слова из описания.
+ * Слова разбираются {@link SearchTerms} и сводятся к основам. В найденном фильме должны встретиться все основы
+ * слов запроса; релевантность считается по BM25 без поправки на длину текста и умножается на
+ * 1 + likes-weight * ln(1 + число лайков).
+ * <p>
+ * Индекс строится в фоне после запуска приложения, фильмы, добавленные или изменённые за это время, применяются
+ * к нему при подключении. Изменённый фильм получает новый внутренний номер, а прежний помечается удалённым;
+ * такие записи убираются при периодической полной перестройке.
+ */
+@Slf4j
+@Component
+public class FilmSearchIndex {
+    private static final int NAME_WEIGHT = 3;
+    private static final int MAX_WEIGHT = Byte.MAX_VALUE;
+    private static final float SATURATION = 1.2f;
+    private static final int LIKES_BATCH_SIZE = 1024;
+
+    private final FilmStorage filmStorage;
+    private final FilmLeaderboard filmLeaderboard;
+    private final boolean enabled;
+    private final double likesWeight;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    private Index index = new Index();
+    private List<FilmText> pendingFilms;
+    private volatile boolean ready;
+
+    public FilmSearchIndex(@Qualifier("FilmDbStorage") FilmStorage filmStorage,
+                           FilmLeaderboard filmLeaderboard,
+                           @Value("${filmorate.search.enabled:true}") boolean enabled,
+                           @Value("${filmorate.search.likes-weight:0.1}") double likesWeight) {
+        this.filmStorage = filmStorage;
+        this.filmLeaderboard = filmLeaderboard;
+        this.enabled = enabled;
+        this.likesWeight = likesWeight;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled)
+            return;
+        Thread builder = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Не удалось построить поисковый индекс фильмов: {}", e.getMessage());
+            }
+        }, "film-search-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    @Scheduled(initialDelayString = "${filmorate.search.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${filmorate.search.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        if (!enabled)
+            return;
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                pendingFilms = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Index loaded = new Index();
+            try {
+                filmStorage.forEachFilmText(loaded::add);
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    pendingFilms = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            lock.writeLock().lock();
+            try {
+                pendingFilms.forEach(film -> loaded.add(film.id, film.name, film.description));
+                index = loaded;
+                pendingFilms = null;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Поисковый индекс фильмов построен за {} мс: фильмов {}, слов {}",
+                    System.currentTimeMillis() - start, loaded.liveCount, loaded.postings.size());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void addFilm(long filmId, String name, String description) {
+        if (!enabled)
+            return;
+        lock.writeLock().lock();
+        try {
+            if (pendingFilms != null)
+                pendingFilms.add(new FilmText(filmId, name, description));
+            index.add(filmId, name, description);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает id не более count фильмов, содержащих все слова terms, по убыванию оценки.
+     */
+    public List<Long> search(List<String> terms, int count) {
+        if (terms.isEmpty() || count <= 0)
+            return new ArrayList<>();
+        TopFilms top = new TopFilms(count);
+        lock.readLock().lock();
+        try {
+            index.search(terms, (filmIds, relevance, size) -> {
+                int[] likesCount = new int[size];
+                filmLeaderboard.getLikesCount(filmIds, size, likesCount);
+                for (int i = 0; i < size; i++)
+                    top.offer(filmIds[i], (float) (relevance[i] * (1 + likesWeight * Math.log1p(likesCount[i]))));
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top.toList();
+    }
+
+    @FunctionalInterface
+    private interface MatchConsumer {
+        void accept(long[] filmIds, float[] relevance, int size);
+    }
+
+    private static class Index {
+        private final Map<String, Postings> postings = new HashMap<>();
+        private final LongLongMap docs = new LongLongMap();
+        private long[] filmIds = new long[16];
+        private int docCount;
+        private int liveCount;
+
+        private void add(long filmId, String name, String description) {
+            long previous = docs.getOrDefault(filmId, -1);
+            if (previous >= 0) {
+                filmIds[(int) previous] = 0;
+                liveCount--;
+            }
+            Map<String, Integer> weights = new HashMap<>();
+            for (String term : SearchTerms.tokenize(name))
+                weights.merge(term, NAME_WEIGHT, Integer::sum);
+            for (String term : SearchTerms.tokenize(description))
+                weights.merge(term, 1, Integer::sum);
+            if (docCount == filmIds.length)
+                filmIds = Arrays.copyOf(filmIds, docCount * 2);
+            int doc = docCount++;
+            filmIds[doc] = filmId;
+            liveCount++;
+            docs.put(filmId, doc);
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new Postings())
+                    .add(doc, (byte) Math.min(weight, MAX_WEIGHT)));
+        }
+
+        private void search(List<String> terms, MatchConsumer action) {
+            Postings[] lists = new Postings[terms.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postings.get(terms.get(i));
+                if (lists[i] == null)
+                    return;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            float[] idf = new float[lists.length];
+            for (int i = 0; i < lists.length; i++)
+                idf[i] = (float) Math.log(1 + (liveCount - lists[i].size + 0.5) / (lists[i].size + 0.5));
+            int[] cursors = new int[lists.length];
+            long[] matchedIds = new long[LIKES_BATCH_SIZE];
+            float[] relevance = new float[LIKES_BATCH_SIZE];
+            int matched = 0;
+            Postings first = lists[0];
+            candidates:
+            for (int i = 0; i < first.size; i++) {
+                int doc = first.docs[i];
+                if (filmIds[doc] == 0)
+                    continue;
+                float score = idf[0] * saturate(first.weights[i]);
+                for (int k = 1; k < lists.length; k++) {
+                    Postings list = lists[k];
+                    cursors[k] = list.seek(doc, cursors[k]);
+                    if (cursors[k] == list.size)
+                        break candidates;
+                    if (list.docs[cursors[k]] != doc)
+                        continue candidates;
+                    score += idf[k] * saturate(list.weights[cursors[k]]);
+                }
+                matchedIds[matched] = filmIds[doc];
+                relevance[matched++] = score;
+                if (matched == LIKES_BATCH_SIZE) {
+                    action.accept(matchedIds, relevance, matched);
+                    matched = 0;
+                }
+            }
+            if (matched > 0)
+                action.accept(matchedIds, relevance, matched);
+        }
+
+        private static float saturate(byte weight) {
+            return weight * (1 + SATURATION) / (weight + SATURATION);
+        }
+    }
+
+    private static class Postings {
+        private int[] docs = new int[4];
+        private byte[] weights = new byte[4];
+        private int size;
+
+        private void add(int doc, byte weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size + (size >> 1));
+                weights = Arrays.copyOf(weights, docs.length);
+            }
+            docs[size] = doc;
+            weights[size++] = weight;
+        }
+
+        /**
+         * Возвращает позицию первого номера не меньше doc, начиная с from: сначала шагами удваивающейся длины,
+         * затем двоичным поиском.
+         */
+        private int seek(int doc, int from) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && docs[high] < doc) {
+                low = high + 1;
+                high = from + step;
+                step <<= 1;
+            }
+            if (high >= size)
+                high = size;
+            int index = Arrays.binarySearch(docs, low, high, doc);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    private static class FilmText {
+        private final long id;
+        private final String name;
+        private final String description;
+
+        private FilmText(long id, String name, String description) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+        }
+    }
+}
@@ -3,54 +3,146 @@ package ru.yandex.practicum.filmorate.service.film;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.service.AfterCommit;
 import ru.yandex.practicum.filmorate.storage.interfaces.FilmGenreStorage;
 import ru.yandex.practicum.filmorate.storage.interfaces.FilmStorage;
 import ru.yandex.practicum.filmorate.storage.interfaces.LikesStorage;
+import ru.yandex.practicum.filmorate.util.LongSet;
+import ru.yandex.practicum.filmorate.util.SearchTerms;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class FilmService {
+    private static final int STREAM_PAGE_SIZE = 1000;
+
     private final FilmStorage filmStorage;
     private final FilmGenreStorage filmGenreStorage;
     private final LikesStorage likesStorage;
+    private final FilmLeaderboard filmLeaderboard;
+    private final FilmCache filmCache;
+    private final FilmSearchIndex filmSearchIndex;
 
     @Autowired
     public FilmService(@Qualifier("FilmDbStorage") FilmStorage filmStorage,
                        FilmGenreStorage filmGenreStorage,
-                       LikesStorage likesStorage) {
+                       LikesStorage likesStorage,
+                       FilmLeaderboard filmLeaderboard,
+                       FilmCache filmCache,
+                       FilmSearchIndex filmSearchIndex) {
         this.filmStorage = filmStorage;
         this.filmGenreStorage = filmGenreStorage;
         this.likesStorage = likesStorage;
+        this.filmLeaderboard = filmLeaderboard;
+        this.filmCache = filmCache;
+        this.filmSearchIndex = filmSearchIndex;
     }
 
+    @Transactional
     public Film addFilm(Film film) {
         Long id = filmStorage.insertFilm(film);
         filmGenreStorage.insertGenres(id, film.getGenres());
-        return getFilm(id);
+        AfterCommit.run(() -> {
+            filmLeaderboard.addFilm(id);
+            filmSearchIndex.addFilm(id, film.getName(), film.getDescription());
+        });
+        return loadFilm(id);
+    }
+
+    @Transactional
+    public List<Long> addFilms(List<Film> films) {
+        List<Long> ids = filmStorage.insertFilms(films);
+        Map<Long, LinkedHashSet<Genre>> genres = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++)
+            genres.put(ids.get(i), films.get(i).getGenres());
+        filmGenreStorage.insertGenres(genres);
+        AfterCommit.run(() -> {
+            ids.forEach(filmLeaderboard::addFilm);
+            for (int i = 0; i < ids.size(); i++)
+                filmSearchIndex.addFilm(ids.get(i), films.get(i).getName(), films.get(i).getDescription());
+        });
+        return ids;
     }
 
+    @Transactional
     public Film updateFilm(Film film) {
         filmStorage.updateFilm(film);
         filmGenreStorage.updateGenres(film.getId(), film.getGenres());
-        return getFilm(film.getId());
+        AfterCommit.run(() -> {
+            filmCache.invalidate(film.getId());
+            filmSearchIndex.addFilm(film.getId(), film.getName(), film.getDescription());
+        });
+        return loadFilm(film.getId());
     }
 
     public List<Film> getFilms() {
-        return filmStorage.loadFilms().stream()
-                .map(f -> f.toBuilder()
-                        .likes(likesStorage.loadLikes(f.getId()))
-                        .genres(filmGenreStorage.loadGenres(f.getId()))
-                        .build())
+        return fillFilms(filmStorage.loadFilms(), likesStorage.loadAllLikes(), filmGenreStorage.loadAllGenres());
+    }
+
+    public List<Film> getFilms(long afterId, int limit) {
+        return filmStorage.loadFilmsWithDetails(afterId, limit);
+    }
+
+    public void forEachFilm(Consumer<Film> action) {
+        long afterId = 0;
+        List<Film> page;
+        do {
+            page = getFilms(afterId, STREAM_PAGE_SIZE);
+            page.forEach(action);
+            if (!page.isEmpty())
+                afterId = page.get(page.size() - 1).getId();
+        } while (page.size() == STREAM_PAGE_SIZE);
+    }
+
+    public List<Film> getFilms(List<Long> ids) {
+        Map<Long, Film> films = filmCache.getAll(ids, this::loadFilms);
+        return ids.stream()
+                .map(films::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
+    public List<Film> searchFilms(String query, int count) {
+        List<String> terms = SearchTerms.terms(query);
+        if (terms.isEmpty())
+            return new ArrayList<>();
+        return getFilms(filmSearchIndex.isReady()
+                ? filmSearchIndex.search(terms, count)
+                : filmStorage.searchFilmsId(terms, count));
+    }
+
     public Film getFilm(Long id) {
-        return filmStorage.getFilm(id).toBuilder()
-                .likes(likesStorage.loadLikes(id))
-                .genres(filmGenreStorage.loadGenres(id))
-                .build();
+        return filmCache.get(id, this::loadFilm);
+    }
+
+    private Film loadFilm(Long id) {
+        return filmStorage.getFilmWithDetails(id);
+    }
+
+    private Map<Long, Film> loadFilms(List<Long> ids) {
+        return filmStorage.loadFilmsWithDetails(ids).stream()
+                .collect(Collectors.toMap(Film::getId, Function.identity()));
+    }
+
+    private List<Film> fillFilms(List<Film> films, Map<Long, Set<Long>> likes,
+                                 Map<Long, LinkedHashSet<Genre>> genres) {
+        return films.stream()
+                .map(f -> f.toBuilder()
+                        .likes(likes.getOrDefault(f.getId(), new LongSet()))
+                        .genres(genres.getOrDefault(f.getId(), new LinkedHashSet<>()))
+                        .build())
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,59 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.interfaces.LikesStorage;
+
+import java.util.Map;
+
+/**
+ * Периодически сверяет столбец films.like_count с таблицей film_likes и исправляет расхождения.
+ * В рейтинге популярных фильмов исправляются только фильмы с расхождениями: их число лайков сдвигается
+ * к исправленному счётчику с учётом ещё не записанных лайков из очереди. Рейтинг не перестраивается целиком,
+ * поэтому лайки, пришедшие во время сверки, не теряются.
+ */
+@Slf4j
+@Component
+public class LikesCountRepairJob {
+    private final LikesStorage likesStorage;
+    private final LikesWriteBehindQueue likesQueue;
+    private final FilmLeaderboard filmLeaderboard;
+    private final boolean enabled;
+
+    public LikesCountRepairJob(LikesStorage likesStorage,
+                               LikesWriteBehindQueue likesQueue,
+                               FilmLeaderboard filmLeaderboard,
+                               @Value("${filmorate.likes.count-repair.enabled:true}") boolean enabled) {
+        this.likesStorage = likesStorage;
+        this.likesQueue = likesQueue;
+        this.filmLeaderboard = filmLeaderboard;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(initialDelayString = "${filmorate.likes.count-repair.interval-ms:3600000}",
+            fixedDelayString = "${filmorate.likes.count-repair.interval-ms:3600000}")
+    public void repair() {
+        if (!enabled)
+            return;
+        if (likesQueue.isEnabled())
+            likesQueue.flush();
+        Map<Long, Integer> repairedLikesCount = likesStorage.repairLikesCount();
+        repairedLikesCount.forEach((filmId, likesCount) ->
+                filmLeaderboard.correctLikesCount(filmId, likesCount + getPendingDelta(filmId)));
+        if (repairedLikesCount.isEmpty())
+            log.debug("Счётчики лайков совпадают с таблицей лайков.");
+        else
+            log.warn("Исправлены счётчики лайков фильмов: {}", repairedLikesCount.keySet());
+    }
+
+    private int getPendingDelta(long filmId) {
+        int delta = 0;
+        for (Map.Entry<Long, Boolean> like : likesQueue.getPendingLikes(filmId).entrySet()) {
+            if (like.getValue() != likesStorage.containsLike(filmId, like.getKey()))
+                delta += like.getValue() ? 1 : -1;
+        }
+        return delta;
+    }
+}
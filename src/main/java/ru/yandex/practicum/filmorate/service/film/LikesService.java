@@ -1,54 +1,118 @@
 package ru.yandex.practicum.filmorate.service.film;
 
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import ru.yandex.practicum.filmorate.exceptions.FilmLikeAlreadyAddedException;
 import ru.yandex.practicum.filmorate.exceptions.FilmLikeNotFoundException;
 import ru.yandex.practicum.filmorate.model.Film;
-import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FanOutExecutor;
 import ru.yandex.practicum.filmorate.service.user.UserService;
 import ru.yandex.practicum.filmorate.storage.interfaces.LikesStorage;
 
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 public class LikesService {
     private final FilmService filmService;
     private final UserService userService;
     private final LikesStorage likesStorage;
+    private final FilmLeaderboard filmLeaderboard;
+    private final FilmRecommender filmRecommender;
+    private final LikesWriteBehindQueue likesWriteBehindQueue;
+    private final FilmCache filmCache;
+    private final FanOutExecutor fanOutExecutor;
 
     public LikesService(FilmService filmService,
                         UserService userService,
-                        LikesStorage likesStorage) {
+                        LikesStorage likesStorage,
+                        FilmLeaderboard filmLeaderboard,
+                        FilmRecommender filmRecommender,
+                        LikesWriteBehindQueue likesWriteBehindQueue,
+                        FilmCache filmCache,
+                        FanOutExecutor fanOutExecutor) {
         this.filmService = filmService;
         this.userService = userService;
         this.likesStorage = likesStorage;
+        this.filmLeaderboard = filmLeaderboard;
+        this.filmRecommender = filmRecommender;
+        this.likesWriteBehindQueue = likesWriteBehindQueue;
+        this.filmCache = filmCache;
+        this.fanOutExecutor = fanOutExecutor;
+        likesWriteBehindQueue.setDroppedLikeListener(this::revertDroppedLike);
     }
 
     public void addLike(Long filmId, Long userId) {
-        Film film = filmService.getFilm(filmId);
-        User user = userService.getUser(userId);
+        String message = fanOutExecutor.join(() -> filmService.getFilm(filmId), () -> userService.getUser(userId),
+                (film, user) -> String.format("Пользователь %s уже поставил лайк фильму %s.",
+                        user.getName(), film.getName()));
 
-        if (likesStorage.loadLikes(filmId).contains(userId))
-            throw new FilmLikeAlreadyAddedException(String.format("Пользователь %s уже поставил лайк фильму %s.",
-                    user.getName(), film.getName()));
-        likesStorage.insertLike(filmId, userId);
+        if (likesWriteBehindQueue.isEnabled()) {
+            if (!likesWriteBehindQueue.addLike(filmId, userId))
+                throw new FilmLikeAlreadyAddedException(message);
+        } else {
+            if (likesStorage.containsLike(filmId, userId))
+                throw new FilmLikeAlreadyAddedException(message);
+            try {
+                likesStorage.insertLike(filmId, userId);
+            } catch (DuplicateKeyException e) {
+                throw new FilmLikeAlreadyAddedException(message);
+            }
+        }
+        filmLeaderboard.addLike(filmId);
+        filmRecommender.addLike(filmId, userId);
+        filmCache.invalidate(filmId);
     }
 
     public void deleteLike(Long filmId, Long userId) {
-        Film film = filmService.getFilm(filmId);
-        User user = userService.getUser(userId);
+        String message = fanOutExecutor.join(() -> filmService.getFilm(filmId), () -> userService.getUser(userId),
+                (film, user) -> String.format("Пользователь %s не ставил лайк фильму %s, поэтому " +
+                        "лайк не может быть удалён.", user.getName(), film.getName()));
 
-        if (!likesStorage.loadLikes(filmId).contains(userId)) {
-            throw new FilmLikeNotFoundException(String.format("Пользователь %s не ставил лайк фильму %s, поэтому " +
-                    "лайк не может быть удалён.", user.getName(), film.getName()));
-        }
-        likesStorage.deleteLike(filmId, userId);
+        boolean deleted = likesWriteBehindQueue.isEnabled()
+                ? likesWriteBehindQueue.deleteLike(filmId, userId)
+                : likesStorage.deleteLike(filmId, userId);
+        if (!deleted)
+            throw new FilmLikeNotFoundException(message);
+        filmLeaderboard.deleteLike(filmId);
+        filmRecommender.deleteLike(filmId, userId);
+        filmCache.invalidate(filmId);
+    }
+
+    public List<Film> getLikedFilms(Long userId) {
+        userService.getUser(userId);
+        return filmService.getFilms(likesStorage.loadLikedFilmsId(userId));
     }
 
     public List<Film> getPopularFilms(int count) {
-        return likesStorage.loadPopularFilmsId(count).stream()
-                .map(i -> filmService.getFilm(i))
-                .collect(Collectors.toList());
+        return filmService.getFilms(filmLeaderboard.getTop(count));
+    }
+
+    public List<Film> getRecommendations(Long userId, int count) {
+        userService.getUser(userId);
+        List<Long> recommendedFilmsId = filmRecommender.recommend(userId, count);
+        if (recommendedFilmsId.size() < count) {
+            Set<Long> excludedFilmsId = new HashSet<>(recommendedFilmsId);
+            excludedFilmsId.addAll(likesStorage.loadLikedFilmsId(userId));
+            for (Long filmId : filmLeaderboard.getTop(count + excludedFilmsId.size())) {
+                if (recommendedFilmsId.size() == count)
+                    break;
+                if (!excludedFilmsId.contains(filmId))
+                    recommendedFilmsId.add(filmId);
+            }
+        }
+        return filmService.getFilms(recommendedFilmsId);
+    }
+
+    private void revertDroppedLike(long filmId, long userId, boolean liked) {
+        if (liked) {
+            filmLeaderboard.deleteLike(filmId);
+            filmRecommender.deleteLike(filmId, userId);
+        } else {
+            filmLeaderboard.addLike(filmId);
+            filmRecommender.addLike(filmId, userId);
+        }
+        filmCache.invalidate(filmId);
     }
 }
@@ -0,0 +1,317 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exceptions.LikesQueueOverflowException;
+import ru.yandex.practicum.filmorate.storage.interfaces.LikesStorage;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+public class LikesWriteBehindQueue {
+    private final LikesStorage likesStorage;
+    private final FilmCache filmCache;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+
+    private final Map<LikeKey, Boolean> pending = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition flushRequested = lock.newCondition();
+    private volatile boolean running;
+    private volatile DroppedLikeListener droppedLikeListener = (filmId, userId, liked) -> {
+    };
+    private long flushes;
+    private Thread flusher;
+
+    public LikesWriteBehindQueue(LikesStorage likesStorage,
+                                 FilmCache filmCache,
+                                 @Value("${filmorate.likes.write-behind.enabled:false}") boolean enabled,
+                                 @Value("${filmorate.likes.write-behind.capacity:100000}") int capacity,
+                                 @Value("${filmorate.likes.write-behind.batch-size:1000}") int batchSize,
+                                 @Value("${filmorate.likes.write-behind.flush-interval-ms:200}") long flushIntervalMs,
+                                 @Value("${filmorate.likes.write-behind.offer-timeout-ms:1000}") long offerTimeoutMs) {
+        this.likesStorage = likesStorage;
+        this.filmCache = filmCache;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled)
+            return;
+        running = true;
+        flusher = new Thread(this::runFlusher, "likes-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Отложенная запись лайков включена: ёмкость {}, пакет {}, интервал {} мс",
+                capacity, batchSize, flushIntervalMs);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!enabled)
+            return;
+        running = false;
+        lock.lock();
+        try {
+            flushRequested.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (flusher != null)
+            flusher.join();
+        flush();
+        log.info("Очередь лайков сброшена в базу данных при остановке приложения.");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Ставит лайк в очередь, если с учётом ещё не записанных изменений пользователь его не ставил.
+     * Проверка и постановка выполняются атомарно, поэтому из одновременных одинаковых запросов проходит один.
+     */
+    public boolean addLike(long filmId, long userId) {
+        return offer(new LikeKey(filmId, userId), true);
+    }
+
+    /**
+     * Ставит снятие лайка в очередь, если с учётом ещё не записанных изменений лайк поставлен.
+     */
+    public boolean deleteLike(long filmId, long userId) {
+        return offer(new LikeKey(filmId, userId), false);
+    }
+
+    /**
+     * Задаёт обработчик лайков, которые не удалось записать в базу данных, чтобы отменить их учёт в памяти.
+     */
+    public void setDroppedLikeListener(DroppedLikeListener droppedLikeListener) {
+        this.droppedLikeListener = droppedLikeListener;
+    }
+
+    /**
+     * Убирает из очереди ещё не записанные изменения лайков пользователя и возвращает их по id фильма.
+     * Дожидается текущей записи очереди, поэтому после вызова эти изменения уже не попадут в базу данных.
+     */
+    public synchronized Map<Long, Boolean> removePendingLikes(long userId) {
+        Map<Long, Boolean> removed = new HashMap<>();
+        lock.lock();
+        try {
+            Iterator<Map.Entry<LikeKey, Boolean>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<LikeKey, Boolean> entry = iterator.next();
+                if (entry.getKey().userId == userId) {
+                    removed.put(entry.getKey().filmId, entry.getValue());
+                    iterator.remove();
+                }
+            }
+            if (!removed.isEmpty()) {
+                flushes++;
+                notFull.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return removed;
+    }
+
+    /**
+     * Возвращает в очередь изменения, убранные removePendingLikes, если удаление пользователя не состоялось.
+     */
+    public void restorePendingLikes(long userId, Map<Long, Boolean> likes) {
+        lock.lock();
+        try {
+            likes.forEach((filmId, liked) -> pending.putIfAbsent(new LikeKey(filmId, userId), liked));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает ещё не записанные изменения лайков фильма по id пользователя.
+     */
+    public Map<Long, Boolean> getPendingLikes(long filmId) {
+        Map<Long, Boolean> likes = new HashMap<>();
+        lock.lock();
+        try {
+            pending.forEach((key, liked) -> {
+                if (key.filmId == filmId)
+                    likes.put(key.userId, liked);
+            });
+        } finally {
+            lock.unlock();
+        }
+        return likes;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public synchronized void flush() {
+        Map<LikeKey, Boolean> batch;
+        lock.lock();
+        try {
+            if (pending.isEmpty())
+                return;
+            batch = new LinkedHashMap<>(pending);
+        } finally {
+            lock.unlock();
+        }
+
+        write(batch);
+
+        lock.lock();
+        try {
+            batch.forEach((key, liked) -> pending.remove(key, liked));
+            flushes++;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean offer(LikeKey key, boolean liked) {
+        boolean stored = false;
+        long checkedFlushes = -1;
+        lock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+            while (true) {
+                Boolean current = pending.get(key);
+                if (current == null && checkedFlushes != flushes) {
+                    long flushesBeforeCheck = flushes;
+                    lock.unlock();
+                    try {
+                        stored = likesStorage.containsLike(key.filmId, key.userId);
+                    } finally {
+                        lock.lock();
+                    }
+                    checkedFlushes = flushesBeforeCheck;
+                    continue;
+                }
+                if ((current == null ? stored : current) == liked)
+                    return false;
+                if (pending.size() < capacity || pending.containsKey(key))
+                    break;
+                if (nanos <= 0)
+                    throw new LikesQueueOverflowException("Очередь лайков переполнена, повторите запрос позже.");
+                flushRequested.signal();
+                nanos = notFull.awaitNanos(nanos);
+            }
+            pending.put(key, liked);
+            if (pending.size() >= batchSize)
+                flushRequested.signal();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LikesQueueOverflowException("Постановка лайка в очередь прервана.");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runFlusher() {
+        while (running) {
+            lock.lock();
+            try {
+                if (pending.size() < batchSize)
+                    flushRequested.await(flushIntervalMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Не удалось записать очередь лайков: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void write(Map<LikeKey, Boolean> batch) {
+        Map<Long, Set<Long>> inserted = new HashMap<>();
+        Map<Long, Set<Long>> deleted = new HashMap<>();
+        batch.forEach((key, liked) -> (liked ? inserted : deleted)
+                .computeIfAbsent(key.filmId, id -> new HashSet<>()).add(key.userId));
+        try {
+            likesStorage.deleteLikes(deleted);
+            likesStorage.insertLikes(inserted);
+        } catch (RuntimeException e) {
+            log.warn("Пакетная запись лайков не удалась, запись по одному: {}", e.getMessage());
+            batch.forEach(this::writeOne);
+        }
+        filmCache.invalidateAll(inserted.keySet());
+        filmCache.invalidateAll(deleted.keySet());
+    }
+
+    private void writeOne(LikeKey key, Boolean liked) {
+        try {
+            if (liked)
+                likesStorage.insertLikes(Map.of(key.filmId, Set.of(key.userId)));
+            else
+                likesStorage.deleteLikes(Map.of(key.filmId, Set.of(key.userId)));
+        } catch (RuntimeException e) {
+            log.error("Лайк пользователя {} фильму {} не записан: {}", key.userId, key.filmId, e.getMessage());
+            droppedLikeListener.accept(key.filmId, key.userId, liked);
+        }
+    }
+
+    @FunctionalInterface
+    public interface DroppedLikeListener {
+        void accept(long filmId, long userId, boolean liked);
+    }
+
+    private static final class LikeKey {
+        private final long filmId;
+        private final long userId;
+
+        private LikeKey(long filmId, long userId) {
+            this.filmId = filmId;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof LikeKey))
+                return false;
+            LikeKey likeKey = (LikeKey) o;
+            return filmId == likeKey.filmId && userId == likeKey.userId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(filmId, userId);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.interfaces.ReactiveFilmStorage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Profile("reactive")
+public class ReactiveFilmService {
+    private final ReactiveFilmStorage filmStorage;
+    private final FilmLeaderboard filmLeaderboard;
+
+    public ReactiveFilmService(ReactiveFilmStorage filmStorage, FilmLeaderboard filmLeaderboard) {
+        this.filmStorage = filmStorage;
+        this.filmLeaderboard = filmLeaderboard;
+    }
+
+    public Mono<Film> addFilm(Film film) {
+        return filmStorage.insertFilm(film)
+                .doOnNext(filmLeaderboard::addFilm)
+                .flatMap(filmStorage::getFilm);
+    }
+
+    public Mono<Film> updateFilm(Film film) {
+        return filmStorage.updateFilm(film)
+                .then(filmStorage.getFilm(film.getId()));
+    }
+
+    public Flux<Film> getFilms() {
+        return filmStorage.loadFilms();
+    }
+
+    public Flux<Film> getFilms(List<Long> ids) {
+        return filmStorage.loadFilms(ids)
+                .collectMap(Film::getId, Function.identity())
+                .flatMapIterable(films -> ids.stream()
+                        .map(films::get)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()));
+    }
+
+    public Mono<Film> getFilm(Long id) {
+        return filmStorage.getFilm(id);
+    }
+}
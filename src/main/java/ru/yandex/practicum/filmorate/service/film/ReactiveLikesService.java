@@ -0,0 +1,71 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.exceptions.FilmLikeAlreadyAddedException;
+import ru.yandex.practicum.filmorate.exceptions.FilmLikeNotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.user.ReactiveUserService;
+import ru.yandex.practicum.filmorate.storage.interfaces.ReactiveLikesStorage;
+
+@Service
+@Profile("reactive")
+public class ReactiveLikesService {
+    private final ReactiveFilmService filmService;
+    private final ReactiveUserService userService;
+    private final ReactiveLikesStorage likesStorage;
+    private final FilmLeaderboard filmLeaderboard;
+    private final FilmRecommender filmRecommender;
+
+    public ReactiveLikesService(ReactiveFilmService filmService,
+                                ReactiveUserService userService,
+                                ReactiveLikesStorage likesStorage,
+                                FilmLeaderboard filmLeaderboard,
+                                FilmRecommender filmRecommender) {
+        this.filmService = filmService;
+        this.userService = userService;
+        this.likesStorage = likesStorage;
+        this.filmLeaderboard = filmLeaderboard;
+        this.filmRecommender = filmRecommender;
+    }
+
+    public Mono<Void> addLike(Long filmId, Long userId) {
+        return filmService.getFilm(filmId)
+                .zipWhen(film -> userService.getUser(userId))
+                .flatMap(filmAndUser -> {
+                    String message = String.format("Пользователь %s уже поставил лайк фильму %s.",
+                            filmAndUser.getT2().getName(), filmAndUser.getT1().getName());
+                    return likesStorage.containsLike(filmId, userId)
+                            .flatMap(liked -> liked
+                                    ? Mono.<Void>error(new FilmLikeAlreadyAddedException(message))
+                                    : likesStorage.insertLike(filmId, userId)
+                                    .onErrorMap(DataIntegrityViolationException.class,
+                                            e -> new FilmLikeAlreadyAddedException(message)));
+                })
+                .doOnSuccess(ignored -> {
+                    filmLeaderboard.addLike(filmId);
+                    filmRecommender.addLike(filmId, userId);
+                });
+    }
+
+    public Mono<Void> deleteLike(Long filmId, Long userId) {
+        return filmService.getFilm(filmId)
+                .zipWhen(film -> userService.getUser(userId))
+                .flatMap(filmAndUser -> likesStorage.deleteLike(filmId, userId)
+                        .flatMap(deleted -> deleted == 0
+                                ? Mono.<Void>error(new FilmLikeNotFoundException(String.format(
+                                "Пользователь %s не ставил лайк фильму %s, поэтому лайк не может быть удалён.",
+                                filmAndUser.getT2().getName(), filmAndUser.getT1().getName())))
+                                : Mono.<Void>fromRunnable(() -> {
+                                    filmLeaderboard.deleteLike(filmId);
+                                    filmRecommender.deleteLike(filmId, userId);
+                                })));
+    }
+
+    public Flux<Film> getPopularFilms(int count) {
+        return filmService.getFilms(filmLeaderboard.getTop(count));
+    }
+}
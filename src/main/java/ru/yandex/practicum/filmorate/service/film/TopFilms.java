@@ -0,0 +1,100 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ограниченная куча для отбора фильмов с наибольшей оценкой, при равной оценке выше фильм с меньшим id.
+ */
+class TopFilms {
+    private final long[] filmIds;
+    private final float[] scores;
+    private int size;
+
+    TopFilms(int limit) {
+        this.filmIds = new long[Math.max(0, limit)];
+        this.scores = new float[Math.max(0, limit)];
+    }
+
+    void offer(long filmId, float score) {
+        if (filmIds.length == 0)
+            return;
+        if (size < filmIds.length) {
+            filmIds[size] = filmId;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (isBetter(filmId, score, 0)) {
+            filmIds[0] = filmId;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Упорядочивает отобранные фильмы по убыванию оценки и возвращает их число. После вызова фильмы доступны
+     * через filmId и score, а куча пуста.
+     */
+    int drain() {
+        int count = size;
+        while (size > 0) {
+            swap(0, --size);
+            siftDown(0);
+        }
+        return count;
+    }
+
+    long filmId(int index) {
+        return filmIds[index];
+    }
+
+    float score(int index) {
+        return scores[index];
+    }
+
+    List<Long> toList() {
+        int count = drain();
+        List<Long> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            list.add(filmIds[i]);
+        return list;
+    }
+
+    private boolean isBetter(long filmId, float score, int index) {
+        return score > scores[index] || score == scores[index] && filmId < filmIds[index];
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!isBetter(filmIds[parent], scores[parent], index))
+                return;
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int worst = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && !isBetter(filmIds[left], scores[left], worst))
+                worst = left;
+            if (right < size && !isBetter(filmIds[right], scores[right], worst))
+                worst = right;
+            if (worst == index)
+                return;
+            swap(index, worst);
+            index = worst;
+        }
+    }
+
+    private void swap(int i, int j) {
+        long filmId = filmIds[i];
+        float score = scores[i];
+        filmIds[i] = filmIds[j];
+        scores[i] = scores[j];
+        filmIds[j] = filmId;
+        scores[j] = score;
+    }
+}
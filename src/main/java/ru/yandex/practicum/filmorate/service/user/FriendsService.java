@@ -1,13 +1,21 @@
 package ru.yandex.practicum.filmorate.service.user;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.exceptions.FriendAlreadyAddedException;
 import ru.yandex.practicum.filmorate.exceptions.FriendNotFoundException;
 import ru.yandex.practicum.filmorate.model.Status;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.AfterCommit;
 import ru.yandex.practicum.filmorate.storage.interfaces.FriendsStorage;
 
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.Map;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -15,12 +23,31 @@ import java.util.stream.Collectors;
 public class FriendsService {
     private final UserService userService;
     private final FriendsStorage friendsStorage;
+    private final FriendshipPathFinder friendshipPathFinder;
+    private final int suggestionsMaxFriends;
+    private final int suggestionsLimit;
+    private final Cache<Long, List<Long>> suggestions;
 
-    public FriendsService(UserService userService, FriendsStorage friendsStorage) {
+    public FriendsService(UserService userService, FriendsStorage friendsStorage,
+                          FriendshipPathFinder friendshipPathFinder, MeterRegistry meterRegistry,
+                          @Value("${filmorate.friends.suggestions.max-friends:5000}") int suggestionsMaxFriends,
+                          @Value("${filmorate.friends.suggestions.limit:100}") int suggestionsLimit,
+                          @Value("${filmorate.friends.suggestions.cache.maximum-size:10000}") long cacheSize,
+                          @Value("${filmorate.friends.suggestions.cache.ttl:1m}") Duration cacheTtl) {
         this.userService = userService;
         this.friendsStorage = friendsStorage;
+        this.friendshipPathFinder = friendshipPathFinder;
+        this.suggestionsMaxFriends = suggestionsMaxFriends;
+        this.suggestionsLimit = suggestionsLimit;
+        this.suggestions = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, suggestions, "friendSuggestions");
     }
 
+    @Transactional
     public void addFriend(Long id, Long friendId) {
         User user = userService.getUser(id);
         User friend = userService.getUser(friendId);
@@ -38,10 +65,12 @@ public class FriendsService {
             friendsStorage.updateStatus(friendId, id, Status.CONFIRMED);
         } else
             friendsStorage.insertFriend(id, friendId, Status.UNCONFIRMED);
+        AfterCommit.run(() -> suggestions.invalidateAll(List.of(id, friendId)));
     }
 
+    @Transactional
     public void deleteFriend(Long id, Long friendId) {
-        HashMap<Long, Status> userFriends = friendsStorage.loadFriends(id);
+        Map<Long, Status> userFriends = friendsStorage.loadFriends(id);
         if (!userFriends.containsKey(friendId))
             throw new FriendNotFoundException(String.format("%s не является другом %s, поэтому не может быть удалён.",
                     userService.getUser(id).getName(), userService.getUser(friendId).getName()));
@@ -49,17 +78,33 @@ public class FriendsService {
             friendsStorage.updateStatus(friendId, id, Status.UNCONFIRMED);
 
         friendsStorage.deleteFriend(id, friendId);
+        AfterCommit.run(() -> suggestions.invalidateAll(List.of(id, friendId)));
     }
 
     public List<User> getFriends(Long id) {
-        return friendsStorage.loadFriends(id).keySet().stream()
-                .map(userService::getUser)
-                .collect(Collectors.toList());
+        return userService.getUsers(friendsStorage.loadFriends(id).keySet().stream()
+                .sorted()
+                .collect(Collectors.toList()));
+    }
+
+    public List<User> getIncomingRequests(Long id) {
+        return userService.getUsers(friendsStorage.loadIncomingRequestsId(id));
     }
 
     public List<User> getCommonFriends(Long id, Long otherId) {
-        List<User> commonFriends = getFriends(id);
-        commonFriends.retainAll(getFriends(otherId));
-        return commonFriends;
+        return userService.getUsers(friendsStorage.loadCommonFriendsId(id, otherId));
+    }
+
+    public List<User> getSuggestions(Long id, int count) {
+        userService.getUser(id);
+        List<Long> suggestedIds = suggestions.get(id,
+                userId -> friendsStorage.loadSuggestedFriendsId(userId, suggestionsMaxFriends, suggestionsLimit));
+        return userService.getUsers(suggestedIds.subList(0, Math.max(0, Math.min(count, suggestedIds.size()))));
+    }
+
+    public List<User> getPath(Long id, Long otherId, boolean confirmedOnly) {
+        userService.getUser(id);
+        userService.getUser(otherId);
+        return userService.getUsers(friendshipPathFinder.findPath(id, otherId, confirmedOnly));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package ru.yandex.practicum.filmorate.service.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Status;
+import ru.yandex.practicum.filmorate.storage.interfaces.FriendsStorage;
+import ru.yandex.practicum.filmorate.util.LongLongMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ищет кратчайшую цепочку друзей двунаправленным поиском в ширину: от первого пользователя по исходящим
+ * заявкам, от второго - по входящим. На каждом шаге раскрывается меньший из фронтов, соседи всего фронта
+ * загружаются одним пакетным чтением из хранилища. Посещённые вершины хранятся в отображениях id на родителя
+ * без упаковки значений.
+ */
+@Component
+public class FriendshipPathFinder {
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final FriendsStorage friendsStorage;
+    private final int maxDepth;
+
+    public FriendshipPathFinder(FriendsStorage friendsStorage,
+                                @Value("${filmorate.friends.path.max-depth:6}") int maxDepth) {
+        this.friendsStorage = friendsStorage;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Возвращает id пользователей цепочки от id до otherId включительно или пустой список, если цепочки длиной
+     * не больше maxDepth связей нет.
+     */
+    public List<Long> findPath(long id, long otherId, boolean confirmedOnly) {
+        if (id == otherId)
+            return List.of(id);
+        Side forward = new Side(id, false);
+        Side backward = new Side(otherId, true);
+        int depth = 0;
+        while (depth < maxDepth && forward.size > 0 && backward.size > 0) {
+            Side expanded = forward.size <= backward.size ? forward : backward;
+            Side other = expanded == forward ? backward : forward;
+            long meeting = expanded.expand(other, confirmedOnly);
+            depth++;
+            if (meeting != NONE)
+                return join(forward, backward, meeting);
+        }
+        return Collections.emptyList();
+    }
+
+    private static List<Long> join(Side forward, Side backward, long meeting) {
+        List<Long> path = new ArrayList<>();
+        for (long id = meeting; id != NONE; id = forward.parents.getOrDefault(id, NONE))
+            path.add(id);
+        Collections.reverse(path);
+        for (long id = backward.parents.getOrDefault(meeting, NONE); id != NONE;
+             id = backward.parents.getOrDefault(id, NONE))
+            path.add(id);
+        return path;
+    }
+
+    private class Side {
+        private final boolean incoming;
+        private final LongLongMap parents = new LongLongMap();
+        private long[] frontier;
+        private int size;
+        private long[] next;
+        private int nextSize;
+        private Side other;
+        private boolean confirmedOnly;
+        private long meeting;
+        private int meetingDistance;
+
+        private Side(long start, boolean incoming) {
+            this.incoming = incoming;
+            parents.putIfAbsent(start, NONE);
+            frontier = new long[]{start};
+            size = 1;
+        }
+
+        /**
+         * Раскрывает текущий фронт целиком и возвращает вершину встречи с other, ближайшую к началу other,
+         * или NONE.
+         */
+        private long expand(Side other, boolean confirmedOnly) {
+            this.other = other;
+            this.confirmedOnly = confirmedOnly;
+            next = new long[Math.max(16, size)];
+            nextSize = 0;
+            meeting = NONE;
+            meetingDistance = Integer.MAX_VALUE;
+            friendsStorage.forEachFriend(Arrays.copyOf(frontier, size), incoming, this::visit);
+            frontier = next;
+            size = nextSize;
+            next = null;
+            return meeting;
+        }
+
+        private void visit(long id, long friendId, Status status) {
+            if (confirmedOnly && status != Status.CONFIRMED || !parents.putIfAbsent(friendId, id))
+                return;
+            if (other.parents.containsKey(friendId)) {
+                int distance = other.distance(friendId);
+                if (distance < meetingDistance) {
+                    meetingDistance = distance;
+                    meeting = friendId;
+                }
+            }
+            if (nextSize == next.length)
+                next = Arrays.copyOf(next, next.length * 2);
+            next[nextSize++] = friendId;
+        }
+
+        private int distance(long id) {
+            int distance = 0;
+            for (long parent = parents.getOrDefault(id, NONE); parent != NONE;
+                 parent = parents.getOrDefault(parent, NONE))
+                distance++;
+            return distance;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ru.yandex.practicum.filmorate.service.user;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.exceptions.FriendAlreadyAddedException;
+import ru.yandex.practicum.filmorate.exceptions.FriendNotFoundException;
+import ru.yandex.practicum.filmorate.model.Status;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.interfaces.ReactiveFriendsStorage;
+
+import java.util.stream.Collectors;
+
+@Service
+@Profile("reactive")
+public class ReactiveFriendsService {
+    private final ReactiveUserService userService;
+    private final ReactiveFriendsStorage friendsStorage;
+
+    public ReactiveFriendsService(ReactiveUserService userService, ReactiveFriendsStorage friendsStorage) {
+        this.userService = userService;
+        this.friendsStorage = friendsStorage;
+    }
+
+    public Mono<Void> addFriend(Long id, Long friendId) {
+        return userService.getUser(id).zipWhen(user -> userService.getUser(friendId))
+                .flatMap(users -> {
+                    User user = users.getT1();
+                    User friend = users.getT2();
+                    boolean isUserFriend = user.getFriends().containsKey(friendId);
+                    boolean isFriendFriend = friend.getFriends().containsKey(id);
+
+                    if (isUserFriend && isFriendFriend)
+                        return Mono.error(new FriendAlreadyAddedException(String.format("%s добавлен в друзья к %s.",
+                                friend.getName(), user.getName())));
+                    else if (isUserFriend)
+                        return Mono.error(new FriendAlreadyAddedException(String.format(
+                                "%s уже подал заявку в друзья к %s.", friend.getName(), user.getName())));
+                    else if (isFriendFriend)
+                        return friendsStorage.insertFriend(id, friendId, Status.CONFIRMED)
+                                .then(friendsStorage.updateStatus(friendId, id, Status.CONFIRMED));
+                    else
+                        return friendsStorage.insertFriend(id, friendId, Status.UNCONFIRMED);
+                });
+    }
+
+    public Mono<Void> deleteFriend(Long id, Long friendId) {
+        return friendsStorage.loadFriends(id)
+                .flatMap(userFriends -> {
+                    if (!userFriends.containsKey(friendId))
+                        return userService.getUser(id).zipWhen(user -> userService.getUser(friendId))
+                                .flatMap(users -> Mono.<Void>error(new FriendNotFoundException(String.format(
+                                        "%s не является другом %s, поэтому не может быть удалён.",
+                                        users.getT1().getName(), users.getT2().getName()))));
+                    Mono<Void> confirmed = userFriends.get(friendId).equals(Status.CONFIRMED)
+                            ? friendsStorage.updateStatus(friendId, id, Status.UNCONFIRMED)
+                            : Mono.empty();
+                    return confirmed.then(friendsStorage.deleteFriend(id, friendId));
+                });
+    }
+
+    public Flux<User> getFriends(Long id) {
+        return friendsStorage.loadFriends(id)
+                .flatMapMany(friends -> userService.getUsers(friends.keySet().stream().sorted()
+                        .collect(Collectors.toList())));
+    }
+
+    public Flux<User> getIncomingRequests(Long id) {
+        return friendsStorage.loadIncomingRequestsId(id).collectList().flatMapMany(userService::getUsers);
+    }
+
+    public Flux<User> getCommonFriends(Long id, Long otherId) {
+        return friendsStorage.loadCommonFriendsId(id, otherId).collectList().flatMapMany(userService::getUsers);
+    }
+}
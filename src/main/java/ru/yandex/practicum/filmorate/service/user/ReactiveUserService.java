@@ -0,0 +1,63 @@
+package ru.yandex.practicum.filmorate.service.user;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.interfaces.ReactiveFriendsStorage;
+import ru.yandex.practicum.filmorate.storage.interfaces.ReactiveUserStorage;
+import ru.yandex.practicum.filmorate.util.LongStatusMap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Profile("reactive")
+public class ReactiveUserService {
+    private final ReactiveUserStorage userStorage;
+    private final ReactiveFriendsStorage friendsStorage;
+
+    public ReactiveUserService(ReactiveUserStorage userStorage, ReactiveFriendsStorage friendsStorage) {
+        this.userStorage = userStorage;
+        this.friendsStorage = friendsStorage;
+    }
+
+    public Mono<User> addUser(User user) {
+        return userStorage.insertUser(user)
+                .map(addedUser -> addedUser.toBuilder().friends(new LongStatusMap()).build());
+    }
+
+    public Mono<User> updateUser(User user) {
+        return Mono.zip(userStorage.updateUser(user), friendsStorage.loadFriends(user.getId()),
+                (updatedUser, friends) -> updatedUser.toBuilder().friends(friends).build());
+    }
+
+    public Flux<User> getUsers() {
+        return friendsStorage.loadAllFriends()
+                .flatMapMany(friends -> userStorage.loadUsers()
+                        .map(u -> u.toBuilder().friends(friends.getOrDefault(u.getId(), new LongStatusMap())).build()));
+    }
+
+    public Flux<User> getUsers(List<Long> ids) {
+        return Mono.zip(userStorage.loadUsers(ids).collectMap(User::getId, Function.identity()),
+                        friendsStorage.loadFriends(ids))
+                .flatMapIterable(usersAndFriends -> {
+                    Map<Long, User> users = usersAndFriends.getT1();
+                    return ids.stream()
+                            .map(users::get)
+                            .filter(Objects::nonNull)
+                            .map(u -> u.toBuilder().friends(usersAndFriends.getT2()
+                                    .getOrDefault(u.getId(), new LongStatusMap())).build())
+                            .collect(Collectors.toList());
+                });
+    }
+
+    public Mono<User> getUser(Long id) {
+        return Mono.zip(userStorage.loadUser(id), friendsStorage.loadFriends(id),
+                (user, friends) -> user.toBuilder().friends(friends).build());
+    }
+}
@@ -2,25 +2,68 @@ package ru.yandex.practicum.filmorate.service.user;
 
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.model.Status;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.AfterCommit;
+import ru.yandex.practicum.filmorate.service.FanOutExecutor;
+import ru.yandex.practicum.filmorate.service.film.FilmCache;
+import ru.yandex.practicum.filmorate.service.film.FilmLeaderboard;
+import ru.yandex.practicum.filmorate.service.film.FilmRecommender;
+import ru.yandex.practicum.filmorate.service.film.LikesWriteBehindQueue;
 import ru.yandex.practicum.filmorate.storage.interfaces.FriendsStorage;
+import ru.yandex.practicum.filmorate.storage.interfaces.LikesStorage;
 import ru.yandex.practicum.filmorate.storage.interfaces.UserStorage;
+import ru.yandex.practicum.filmorate.util.LongStatusMap;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class UserService {
+    private static final int STREAM_PAGE_SIZE = 1000;
+
     private final UserStorage userStorage;
     private final FriendsStorage friendsStorage;
+    private final LikesStorage likesStorage;
+    private final FilmLeaderboard filmLeaderboard;
+    private final FilmRecommender filmRecommender;
+    private final FilmCache filmCache;
+    private final LikesWriteBehindQueue likesWriteBehindQueue;
+    private final FanOutExecutor fanOutExecutor;
 
-    public UserService(@Qualifier("userDbStorage") UserStorage userStorage, FriendsStorage friendsStorage) {
+    public UserService(@Qualifier("userDbStorage") UserStorage userStorage,
+                       FriendsStorage friendsStorage,
+                       LikesStorage likesStorage,
+                       FilmLeaderboard filmLeaderboard,
+                       FilmRecommender filmRecommender,
+                       FilmCache filmCache,
+                       LikesWriteBehindQueue likesWriteBehindQueue,
+                       FanOutExecutor fanOutExecutor) {
         this.userStorage = userStorage;
         this.friendsStorage = friendsStorage;
+        this.likesStorage = likesStorage;
+        this.filmLeaderboard = filmLeaderboard;
+        this.filmRecommender = filmRecommender;
+        this.filmCache = filmCache;
+        this.likesWriteBehindQueue = likesWriteBehindQueue;
+        this.fanOutExecutor = fanOutExecutor;
     }
 
     public User addUser(User user) {
-        return userStorage.insertUser(user).toBuilder().friends(friendsStorage.loadFriends(user.getId())).build();
+        User addedUser = userStorage.insertUser(user);
+        return addedUser.toBuilder().friends(friendsStorage.loadFriends(addedUser.getId())).build();
+    }
+
+    @Transactional
+    public List<Long> addUsers(List<User> users) {
+        return userStorage.insertUsers(users);
     }
 
     public User updateUser(User user) {
@@ -28,16 +71,75 @@ public class UserService {
     }
 
     public List<User> getUsers() {
+        Map<Long, Map<Long, Status>> friends = friendsStorage.loadAllFriends();
         return userStorage.loadUsers().stream()
-                .peek(u -> u.setFriends(friendsStorage.loadFriends(u.getId())))
+                .peek(u -> u.setFriends(friends.getOrDefault(u.getId(), new LongStatusMap())))
+                .collect(Collectors.toList());
+    }
+
+    public List<User> getUsers(long afterId, int limit) {
+        List<User> users = userStorage.loadUsers(afterId, limit);
+        Map<Long, Map<Long, Status>> friends = friendsStorage.loadFriends(users.stream()
+                .map(User::getId)
+                .collect(Collectors.toList()));
+        users.forEach(u -> u.setFriends(friends.getOrDefault(u.getId(), new LongStatusMap())));
+        return users;
+    }
+
+    public void forEachUser(Consumer<User> action) {
+        long afterId = 0;
+        List<User> page;
+        do {
+            page = getUsers(afterId, STREAM_PAGE_SIZE);
+            page.forEach(action);
+            if (!page.isEmpty())
+                afterId = page.get(page.size() - 1).getId();
+        } while (page.size() == STREAM_PAGE_SIZE);
+    }
+
+    public List<User> getUsers(List<Long> ids) {
+        Map<Long, Map<Long, Status>> friends = friendsStorage.loadFriends(ids);
+        Map<Long, User> users = userStorage.loadUsers(ids).stream()
+                .peek(u -> u.setFriends(friends.getOrDefault(u.getId(), new LongStatusMap())))
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
     public User getUser(Long id) {
-        return userStorage.loadUser(id).toBuilder().friends(friendsStorage.loadFriends(id)).build();
+        return fanOutExecutor.join(() -> userStorage.loadUser(id), () -> friendsStorage.loadFriends(id),
+                (user, friends) -> user.toBuilder().friends(friends).build());
     }
 
+    /**
+     * Удаляет пользователя вместе с его лайками и дружбой. Ещё не записанные изменения лайков пользователя
+     * убираются из очереди отложенной записи, рейтинг, рекомендации и кэш фильмов обновляются после фиксации
+     * транзакции по лайкам, которые пользователь фактически ставил с учётом очереди.
+     */
+    @Transactional
     public void deleteUser(Long id) {
+        Map<Long, Boolean> pendingLikes = likesWriteBehindQueue.removePendingLikes(id);
+        List<Long> storedFilmsId = likesStorage.loadLikedFilmsId(id);
+        likesStorage.deleteLikes(storedFilmsId.stream().collect(Collectors.toMap(Function.identity(),
+                filmId -> Set.of(id))));
+        friendsStorage.deleteFriends(id);
         userStorage.deleteUser(id);
+
+        Set<Long> likedFilmsId = new HashSet<>(storedFilmsId);
+        pendingLikes.forEach((filmId, liked) -> {
+            if (liked)
+                likedFilmsId.add(filmId);
+            else
+                likedFilmsId.remove(filmId);
+        });
+        Set<Long> changedFilmsId = new HashSet<>(storedFilmsId);
+        changedFilmsId.addAll(pendingLikes.keySet());
+        AfterCommit.run(() -> {
+            likedFilmsId.forEach(filmLeaderboard::deleteLike);
+            likedFilmsId.forEach(filmId -> filmRecommender.deleteLike(filmId, id));
+            filmCache.invalidateAll(changedFilmsId);
+        }, () -> likesWriteBehindQueue.restorePendingLikes(id, pendingLikes));
     }
 }
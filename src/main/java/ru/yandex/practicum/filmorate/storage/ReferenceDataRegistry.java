@@ -0,0 +1,87 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.Status;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+@Slf4j
+@Component
+public class ReferenceDataRegistry {
+    private final JdbcTemplate jdbcTemplate;
+    private Genre[] genresById;
+    private Mpa[] mpasById;
+    private Status[] statusesById;
+    private List<Genre> genres;
+    private List<Mpa> mpas;
+
+    public ReferenceDataRegistry(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void load() {
+        genresById = loadTable("SELECT genre_id AS id, name FROM genres", Genre.values(),
+                Genre::getId, Genre[]::new);
+        mpasById = loadTable("SELECT rating_id AS id, name FROM ratings", Mpa.values(),
+                Mpa::getId, Mpa[]::new);
+        statusesById = loadTable("SELECT status_id AS id, name FROM status", Status.values(),
+                Status::getStatusId, Status[]::new);
+        genres = List.of(Genre.values());
+        mpas = List.of(Mpa.values());
+        log.debug("Справочники загружены: жанров {}, рейтингов {}, статусов {}",
+                genres.size(), mpas.size(), Status.values().length);
+    }
+
+    public List<Genre> getGenres() {
+        return genres;
+    }
+
+    public List<Mpa> getMpas() {
+        return mpas;
+    }
+
+    public Genre getGenre(int id) {
+        return id >= 0 && id < genresById.length ? genresById[id] : null;
+    }
+
+    public Mpa getMpa(int id) {
+        return id >= 0 && id < mpasById.length ? mpasById[id] : null;
+    }
+
+    public Status getStatus(int id) {
+        return id >= 0 && id < statusesById.length ? statusesById[id] : null;
+    }
+
+    private <T extends Enum<T>> T[] loadTable(String sql, T[] values, ToIntFunction<T> idOf,
+                                              IntFunction<T[]> arrayOf) {
+        Map<Integer, String> rows = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            rows.put(rs.getInt("id"), rs.getString("name"));
+        });
+        if (rows.size() != values.length)
+            throw new IllegalStateException(String.format("Справочник %s в базе данных содержит %d записей, " +
+                    "ожидалось %d: %s", values[0].getDeclaringClass().getSimpleName(), rows.size(), values.length,
+                    rows));
+
+        T[] byId = arrayOf.apply(Arrays.stream(values).mapToInt(idOf).max().orElse(0) + 1);
+        for (T value : values) {
+            String name = rows.get(idOf.applyAsInt(value));
+            if (!value.name().equals(name))
+                throw new IllegalStateException(String.format("Значение %s с id %d не совпадает с записью " +
+                        "в базе данных: %s", value, idOf.applyAsInt(value), name));
+            byId[idOf.applyAsInt(value)] = value;
+        }
+        return byId;
+    }
+}
@@ -3,79 +3,193 @@ package ru.yandex.practicum.filmorate.storage.film;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.exceptions.FilmNotFoundException;
 import ru.yandex.practicum.filmorate.model.Film;
-import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.storage.ReferenceDataRegistry;
 import ru.yandex.practicum.filmorate.storage.interfaces.FilmStorage;
+import ru.yandex.practicum.filmorate.util.LongSet;
+import ru.yandex.practicum.filmorate.util.SearchTerms;
 
-import java.util.HashMap;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 @Component
 @Qualifier("FilmDbStorage")
 public class FilmDbStorage implements FilmStorage {
+    private static final String SELECT_FILMS_WITH_DETAILS = "SELECT f.*, " +
+            "ARRAY(SELECT fg.genre_id FROM film_genre fg WHERE fg.film_id = f.film_id ORDER BY fg.genre_id) " +
+            "AS genre_ids, " +
+            "ARRAY(SELECT fl.user_id FROM film_likes fl WHERE fl.film_id = f.film_id ORDER BY fl.user_id) " +
+            "AS like_ids " +
+            "FROM films f ";
+
     private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final SimpleJdbcInsert filmInsert;
 
     @Autowired
-    public FilmDbStorage(JdbcTemplate jdbcTemplate) {
+    public FilmDbStorage(JdbcTemplate jdbcTemplate, ReferenceDataRegistry referenceDataRegistry) {
         this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.referenceDataRegistry = referenceDataRegistry;
+        SimpleJdbcInsert insert = new SimpleJdbcInsert(jdbcTemplate);
+        insert.withTableName("films")
+                .usingColumns("name", "description", "release_date", "duration", "rating_id")
+                .usingGeneratedKeyColumns("film_id")
+                .withoutTableColumnMetaDataAccess();
+        insert.compile();
+        this.filmInsert = insert;
     }
 
     @Override
     public Long insertFilm(Film film) {
-        SimpleJdbcInsert simpleJdbcInsert = new SimpleJdbcInsert(jdbcTemplate)
-                .withTableName("films")
-                .usingGeneratedKeyColumns("film_id");
-        return simpleJdbcInsert.executeAndReturnKey(new HashMap<String, Object>() {{
-            put("film_id", film.getId());
-            put("name", film.getName());
-            put("description", film.getDescription());
-            put("release_date", film.getReleaseDate());
-            put("duration", film.getDuration());
-            put("rating_id", film.getMpa().getId());
-        }}).longValue();
+        return filmInsert.executeAndReturnKey(new MapSqlParameterSource()
+                .addValue("name", film.getName())
+                .addValue("description", film.getDescription())
+                .addValue("release_date", film.getReleaseDate())
+                .addValue("duration", film.getDuration())
+                .addValue("rating_id", film.getMpa().getId())).longValue();
+    }
+
+    @Override
+    public List<Long> insertFilms(List<Film> films) {
+        String sql = "INSERT INTO films (name, description, release_date, duration, rating_id) VALUES (?, ?, ?, ?, ?)";
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql, new String[]{"film_id"})) {
+                for (Film film : films) {
+                    ps.setString(1, film.getName());
+                    ps.setString(2, film.getDescription());
+                    ps.setDate(3, Date.valueOf(film.getReleaseDate()));
+                    ps.setLong(4, film.getDuration());
+                    ps.setInt(5, film.getMpa().getId());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                List<Long> ids = new ArrayList<>(films.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next())
+                        ids.add(keys.getLong(1));
+                }
+                return ids;
+            }
+        });
     }
 
     @Override
     public Film updateFilm(Film film) {
         String sql = "UPDATE films SET name = ?, description = ?, release_date = ?, duration = ?, rating_id = ? " +
                 "WHERE film_id = ?";
-        jdbcTemplate.update(sql, film.getName(), film.getDescription(), film.getReleaseDate(), film.getDuration(),
-                film.getMpa().getId(), film.getId());
-        return getFilm(film.getId());
+        int updated = jdbcTemplate.update(sql, film.getName(), film.getDescription(), film.getReleaseDate(),
+                film.getDuration(), film.getMpa().getId(), film.getId());
+        if (updated == 0)
+            throw new FilmNotFoundException(String.format("Фильма с id %d не существует.", film.getId()));
+        return film;
     }
 
     @Override
     public List<Film> loadFilms() {
-        String sql = "SELECT * FROM films AS f LEFT JOIN ratings AS r ON f.rating_id = r.rating_id";
-        return jdbcTemplate.query(sql, (rs, rowNum) ->
-                Film.builder()
-                        .id(rs.getLong("films.film_id"))
-                        .name(rs.getString("films.name"))
-                        .description(rs.getString("films.description"))
-                        .releaseDate(rs.getDate("films.release_date").toLocalDate())
-                        .duration(rs.getLong("films.duration"))
-                        .mpa(Mpa.valueOf(rs.getString("ratings.name")))
-                        .build());
+        String sql = "SELECT * FROM films";
+        return jdbcTemplate.query(sql, this::mapRowToFilm);
+    }
+
+    @Override
+    public List<Film> loadFilmsWithDetails(Collection<Long> ids) {
+        if (ids.isEmpty())
+            return new ArrayList<>();
+        String sql = SELECT_FILMS_WITH_DETAILS + "WHERE f.film_id IN (:ids)";
+        return namedParameterJdbcTemplate.query(sql, Map.of("ids", ids), this::mapRowToFilmWithDetails);
     }
 
     @Override
-    public Film getFilm(Long id) {
-        String sql = "SELECT * FROM films LEFT JOIN ratings ON films.rating_id = ratings.rating_id WHERE film_id = ?";
+    public List<Film> loadFilmsWithDetails(long afterId, int limit) {
+        String sql = SELECT_FILMS_WITH_DETAILS + "WHERE f.film_id > ? ORDER BY f.film_id LIMIT ?";
+        return jdbcTemplate.query(sql, this::mapRowToFilmWithDetails, afterId, limit);
+    }
+
+    @Override
+    public Film getFilmWithDetails(Long id) {
+        String sql = SELECT_FILMS_WITH_DETAILS + "WHERE f.film_id = ?";
         try {
-            return jdbcTemplate.query(sql, (rs, numRow) ->
-                    Film.builder()
-                            .id(rs.getLong("film_id"))
-                            .name(rs.getString("name"))
-                            .description(rs.getString("description"))
-                            .releaseDate(rs.getDate("release_date").toLocalDate())
-                            .duration(rs.getLong("duration"))
-                            .mpa(Mpa.valueOf(rs.getString("ratings.name")))
-                            .build(), id).get(0);
+            return jdbcTemplate.query(sql, this::mapRowToFilmWithDetails, id).get(0);
         } catch (IndexOutOfBoundsException e) {
             throw new FilmNotFoundException(String.format("Фильма с id %d не существует.", id));
         }
     }
+
+    @Override
+    public void forEachFilmText(FilmTextConsumer action) {
+        String sql = "SELECT film_id, name, description FROM films ORDER BY film_id";
+        jdbcTemplate.query(sql, rs -> {
+            action.accept(rs.getLong("film_id"), rs.getString("name"), rs.getString("description"));
+        });
+    }
+
+    @Override
+    public List<Long> searchFilmsId(List<String> terms, int count) {
+        StringBuilder sql = new StringBuilder("SELECT film_id, name, description FROM films WHERE TRUE");
+        List<Object> args = new ArrayList<>();
+        for (String term : terms) {
+            sql.append(" AND REPLACE(LOWER(name || ' ' || description), 'ё', 'е') LIKE ?");
+            args.add("%" + term + "%");
+        }
+        sql.append(" ORDER BY like_count DESC, film_id");
+        return jdbcTemplate.query(sql.toString(), rs -> {
+            List<Long> filmIds = new ArrayList<>();
+            while (filmIds.size() < count && rs.next()) {
+                if (SearchTerms.containsAll(terms, rs.getString("name"), rs.getString("description")))
+                    filmIds.add(rs.getLong("film_id"));
+            }
+            return filmIds;
+        }, args.toArray());
+    }
+
+    private Film mapRowToFilm(ResultSet rs, int rowNum) throws SQLException {
+        return filmBuilder(rs).build();
+    }
+
+    private Film mapRowToFilmWithDetails(ResultSet rs, int rowNum) throws SQLException {
+        LinkedHashSet<Genre> genres = new LinkedHashSet<>();
+        for (Object genreId : toArray(rs.getArray("genre_ids")))
+            genres.add(referenceDataRegistry.getGenre(((Number) genreId).intValue()));
+        Object[] userIds = toArray(rs.getArray("like_ids"));
+        LongSet likes = new LongSet(userIds.length);
+        for (Object userId : userIds)
+            likes.add(((Number) userId).longValue());
+        return filmBuilder(rs).genres(genres).likes(likes).build();
+    }
+
+    private Film.FilmBuilder filmBuilder(ResultSet rs) throws SQLException {
+        return Film.builder()
+                .id(rs.getLong("film_id"))
+                .name(rs.getString("name"))
+                .description(rs.getString("description"))
+                .releaseDate(rs.getDate("release_date").toLocalDate())
+                .duration(rs.getLong("duration"))
+                .mpa(referenceDataRegistry.getMpa(rs.getInt("rating_id")));
+    }
+
+    private static Object[] toArray(Array array) throws SQLException {
+        if (array == null)
+            return new Object[0];
+        try {
+            return (Object[]) array.getArray();
+        } finally {
+            array.free();
+        }
+    }
 }
\ No newline at end of file
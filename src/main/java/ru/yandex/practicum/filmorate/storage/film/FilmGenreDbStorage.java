@@ -3,39 +3,81 @@ package ru.yandex.practicum.filmorate.storage.film;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.storage.ReferenceDataRegistry;
 import ru.yandex.practicum.filmorate.storage.interfaces.FilmGenreStorage;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class FilmGenreDbStorage implements FilmGenreStorage {
     private final JdbcTemplate jdbcTemplate;
+    private final ReferenceDataRegistry referenceDataRegistry;
 
-    public FilmGenreDbStorage(JdbcTemplate jdbcTemplate) {
+    public FilmGenreDbStorage(JdbcTemplate jdbcTemplate, ReferenceDataRegistry referenceDataRegistry) {
         this.jdbcTemplate = jdbcTemplate;
+        this.referenceDataRegistry = referenceDataRegistry;
     }
 
     @Override
     public void insertGenres(long filmId, LinkedHashSet<Genre> genres) {
-        String sql = "INSERT INTO film_genre (film_id, genre_id) " +
-                "VALUES (?, ?)";
         if (genres != null)
-            for (Genre genre : genres)
-                jdbcTemplate.update(sql, filmId, genre.getId());
+            batchUpdate("INSERT INTO film_genre (film_id, genre_id) VALUES (?, ?)", filmId, genres);
     }
 
+    @Override
+    public void insertGenres(Map<Long, LinkedHashSet<Genre>> genres) {
+        List<Object[]> batchArgs = new ArrayList<>();
+        genres.forEach((filmId, filmGenres) -> {
+            if (filmGenres != null)
+                for (Genre genre : filmGenres)
+                    batchArgs.add(new Object[]{filmId, genre.getId()});
+        });
+        if (!batchArgs.isEmpty())
+            jdbcTemplate.batchUpdate("INSERT INTO film_genre (film_id, genre_id) VALUES (?, ?)", batchArgs);
+    }
+
+    @Override
     public void updateGenres(long filmId, LinkedHashSet<Genre> genres) {
-        jdbcTemplate.update("DELETE FROM film_genre WHERE film_id = ?", filmId);
-        insertGenres(filmId, genres);
+        Set<Genre> current = loadGenres(filmId);
+        Set<Genre> updated = genres == null ? Set.of() : genres;
+
+        List<Genre> removed = current.stream().filter(genre -> !updated.contains(genre)).collect(Collectors.toList());
+        List<Genre> added = updated.stream().filter(genre -> !current.contains(genre)).collect(Collectors.toList());
+        batchUpdate("DELETE FROM film_genre WHERE film_id = ? AND genre_id = ?", filmId, removed);
+        batchUpdate("INSERT INTO film_genre (film_id, genre_id) VALUES (?, ?)", filmId, added);
     }
 
     @Override
     public LinkedHashSet<Genre> loadGenres(long filmId) {
-        String sql = "SELECT g.name " +
-                "FROM film_genre fg " +
-                "LEFT JOIN genres g ON fg.genre_id = g.genre_id " +
-                "WHERE fg.film_id = ?";
+        String sql = "SELECT genre_id FROM film_genre WHERE film_id = ? ORDER BY genre_id";
         return new LinkedHashSet<>(jdbcTemplate.query(sql, (rs, ronNum) ->
-                Genre.valueOf(rs.getString("name")), filmId));
+                referenceDataRegistry.getGenre(rs.getInt("genre_id")), filmId));
+    }
+
+    @Override
+    public Map<Long, LinkedHashSet<Genre>> loadAllGenres() {
+        Map<Long, LinkedHashSet<Genre>> genres = new HashMap<>();
+        String sql = "SELECT film_id, genre_id FROM film_genre ORDER BY film_id, genre_id";
+        jdbcTemplate.query(sql, rs -> {
+            genres.computeIfAbsent(rs.getLong("film_id"), id -> new LinkedHashSet<>())
+                    .add(referenceDataRegistry.getGenre(rs.getInt("genre_id")));
+        });
+        return genres;
+    }
+
+    private void batchUpdate(String sql, long filmId, Collection<Genre> genres) {
+        if (genres.isEmpty())
+            return;
+        List<Object[]> batchArgs = new ArrayList<>(genres.size());
+        for (Genre genre : genres)
+            batchArgs.add(new Object[]{filmId, genre.getId()});
+        jdbcTemplate.batchUpdate(sql, batchArgs);
     }
 }
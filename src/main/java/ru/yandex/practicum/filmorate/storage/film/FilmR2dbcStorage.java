@@ -0,0 +1,156 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import io.r2dbc.spi.Row;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import ru.yandex.practicum.filmorate.exceptions.FilmNotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.storage.ReferenceDataRegistry;
+import ru.yandex.practicum.filmorate.storage.interfaces.ReactiveFilmStorage;
+import ru.yandex.practicum.filmorate.util.LongSet;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@Profile("reactive")
+public class FilmR2dbcStorage implements ReactiveFilmStorage {
+    private static final String SELECT_FILMS_WITH_DETAILS = "SELECT f.*, " +
+            "ARRAY(SELECT fg.genre_id FROM film_genre fg WHERE fg.film_id = f.film_id ORDER BY fg.genre_id) " +
+            "AS genre_ids, " +
+            "ARRAY(SELECT fl.user_id FROM film_likes fl WHERE fl.film_id = f.film_id ORDER BY fl.user_id) " +
+            "AS like_ids " +
+            "FROM films f ";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final Scheduler databaseScheduler;
+
+    public FilmR2dbcStorage(DatabaseClient databaseClient,
+                            TransactionalOperator transactionalOperator,
+                            ReferenceDataRegistry referenceDataRegistry,
+                            Scheduler databaseScheduler) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.databaseScheduler = databaseScheduler;
+    }
+
+    @Override
+    public Mono<Long> insertFilm(Film film) {
+        String sql = "INSERT INTO films (name, description, release_date, duration, rating_id) " +
+                "VALUES (:name, :description, :releaseDate, :duration, :ratingId)";
+        return databaseClient.sql(sql)
+                .bind("name", film.getName())
+                .bind("description", film.getDescription())
+                .bind("releaseDate", film.getReleaseDate())
+                .bind("duration", film.getDuration())
+                .bind("ratingId", film.getMpa().getId())
+                .filter(statement -> statement.returnGeneratedValues("film_id"))
+                .map(row -> row.get("film_id", Long.class))
+                .one()
+                .flatMap(id -> insertGenres(id, film.getGenres()).thenReturn(id))
+                .as(transactionalOperator::transactional)
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Mono<Film> updateFilm(Film film) {
+        String sql = "UPDATE films SET name = :name, description = :description, release_date = :releaseDate, " +
+                "duration = :duration, rating_id = :ratingId WHERE film_id = :id";
+        return databaseClient.sql(sql)
+                .bind("name", film.getName())
+                .bind("description", film.getDescription())
+                .bind("releaseDate", film.getReleaseDate())
+                .bind("duration", film.getDuration())
+                .bind("ratingId", film.getMpa().getId())
+                .bind("id", film.getId())
+                .fetch()
+                .rowsUpdated()
+                .flatMap(updated -> updated == 0
+                        ? Mono.error(new FilmNotFoundException(
+                        String.format("Фильма с id %d не существует.", film.getId())))
+                        : databaseClient.sql("DELETE FROM film_genre WHERE film_id = :id")
+                        .bind("id", film.getId())
+                        .then())
+                .then(insertGenres(film.getId(), film.getGenres()))
+                .thenReturn(film)
+                .as(transactionalOperator::transactional)
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Flux<Film> loadFilms() {
+        return databaseClient.sql(SELECT_FILMS_WITH_DETAILS + "ORDER BY f.film_id")
+                .map(this::mapRowToFilm)
+                .all()
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Flux<Film> loadFilms(Collection<Long> ids) {
+        if (ids.isEmpty())
+            return Flux.empty();
+        return databaseClient.sql(SELECT_FILMS_WITH_DETAILS + "WHERE f.film_id IN (:ids)")
+                .bind("ids", ids)
+                .map(this::mapRowToFilm)
+                .all()
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Mono<Film> getFilm(Long id) {
+        return databaseClient.sql(SELECT_FILMS_WITH_DETAILS + "WHERE f.film_id = :id")
+                .bind("id", id)
+                .map(this::mapRowToFilm)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new FilmNotFoundException(
+                        String.format("Фильма с id %d не существует.", id))))
+                .subscribeOn(databaseScheduler);
+    }
+
+    private Mono<Void> insertGenres(long filmId, Collection<Genre> genres) {
+        if (genres == null || genres.isEmpty())
+            return Mono.empty();
+        List<Integer> genreIds = genres.stream().map(Genre::getId).distinct().collect(Collectors.toList());
+        return databaseClient.sql("INSERT INTO film_genre (film_id, genre_id) " +
+                        "SELECT :filmId, genre_id FROM genres WHERE genre_id IN (:genreIds)")
+                .bind("filmId", filmId)
+                .bind("genreIds", genreIds)
+                .then();
+    }
+
+    private Film mapRowToFilm(Row row) {
+        LinkedHashSet<Genre> genres = new LinkedHashSet<>();
+        for (Object genreId : toArray(row.get("genre_ids")))
+            genres.add(referenceDataRegistry.getGenre(((Number) genreId).intValue()));
+        Object[] userIds = toArray(row.get("like_ids"));
+        LongSet likes = new LongSet(userIds.length);
+        for (Object userId : userIds)
+            likes.add(((Number) userId).longValue());
+        return Film.builder()
+                .id(row.get("film_id", Long.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .releaseDate(row.get("release_date", LocalDate.class))
+                .duration(row.get("duration", Long.class))
+                .mpa(referenceDataRegistry.getMpa(row.get("rating_id", Byte.class)))
+                .genres(genres)
+                .likes(likes)
+                .build();
+    }
+
+    private static Object[] toArray(Object array) {
+        return array == null ? new Object[0] : (Object[]) array;
+    }
+}
@@ -1,37 +1,31 @@
 package ru.yandex.practicum.filmorate.storage.film;
 
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.exceptions.GenreNotFoundException;
 import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.storage.ReferenceDataRegistry;
 import ru.yandex.practicum.filmorate.storage.interfaces.GenreStorage;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Component
 public class GenreDbStorage implements GenreStorage {
-    private final JdbcTemplate jdbcTemplate;
+    private final ReferenceDataRegistry referenceDataRegistry;
 
-    public GenreDbStorage(JdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
+    public GenreDbStorage(ReferenceDataRegistry referenceDataRegistry) {
+        this.referenceDataRegistry = referenceDataRegistry;
     }
 
     @Override
     public List<Genre> loadGenres() {
-        String sql = "SELECT * FROM genres";
-        return jdbcTemplate.query(sql, (rs, rowNum) ->
-                        Genre.valueOf(rs.getString("name")))
-                .stream().sorted((g1, g2) -> g1.compareTo(g2)).collect(Collectors.toList());
+        return referenceDataRegistry.getGenres();
     }
 
     @Override
     public Genre loadGenre(int id) {
-        String sql = "SELECT * FROM genres WHERE genre_id = ?";
-        SqlRowSet genreRow = jdbcTemplate.queryForRowSet(sql, id);
-        if (!genreRow.next())
+        Genre genre = referenceDataRegistry.getGenre(id);
+        if (genre == null)
             throw new GenreNotFoundException(String.format("Жанра с id %d не существует", id));
-        return Genre.valueOf(genreRow.getString("name"));
+        return genre;
     }
 }
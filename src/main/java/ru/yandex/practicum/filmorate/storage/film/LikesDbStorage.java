@@ -1,46 +1,136 @@
 package ru.yandex.practicum.filmorate.storage.film;
 
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.filmorate.storage.interfaces.LikesStorage;
+import ru.yandex.practicum.filmorate.util.LongSet;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Component
 public class LikesDbStorage implements LikesStorage {
     private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
     public LikesDbStorage(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
     }
 
     @Override
+    @Transactional
     public void insertLike(Long filmId, Long userId) {
         String sql = "INSERT INTO film_likes (film_id, user_id) VALUES (?, ?)";
         jdbcTemplate.update(sql, filmId, userId);
+        jdbcTemplate.update("UPDATE films SET like_count = like_count + 1 WHERE film_id = ?", filmId);
     }
 
     @Override
-    public void deleteLike(Long filmId, Long userId) {
+    @Transactional
+    public boolean deleteLike(Long filmId, Long userId) {
         String sql = "DELETE FROM film_likes WHERE film_id = ? AND user_id = ?";
-        jdbcTemplate.update(sql, filmId, userId);
+        if (jdbcTemplate.update(sql, filmId, userId) == 0)
+            return false;
+        jdbcTemplate.update("UPDATE films SET like_count = like_count - 1 WHERE film_id = ?", filmId);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void insertLikes(Map<Long, Set<Long>> likes) {
+        if (likes.isEmpty())
+            return;
+        String sql = "MERGE INTO film_likes (film_id, user_id) KEY (film_id, user_id) VALUES (?, ?)";
+        jdbcTemplate.batchUpdate(sql, toBatchArgs(likes));
+        recountLikes(likes.keySet());
+    }
+
+    @Override
+    @Transactional
+    public void deleteLikes(Map<Long, Set<Long>> likes) {
+        if (likes.isEmpty())
+            return;
+        String sql = "DELETE FROM film_likes WHERE film_id = ? AND user_id = ?";
+        jdbcTemplate.batchUpdate(sql, toBatchArgs(likes));
+        recountLikes(likes.keySet());
+    }
+
+    @Override
+    public Map<Long, Integer> loadLikesCount() {
+        String sql = "SELECT film_id, like_count FROM films";
+        Map<Long, Integer> likesCount = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            likesCount.put(rs.getLong("film_id"), rs.getInt("like_count"));
+        });
+        return likesCount;
+    }
+
+    @Override
+    @Transactional
+    public Map<Long, Integer> repairLikesCount() {
+        String sql = "SELECT f.film_id FROM films f " +
+                "LEFT JOIN (SELECT film_id, COUNT(*) AS likes_count FROM film_likes GROUP BY film_id) fl " +
+                "ON f.film_id = fl.film_id " +
+                "WHERE f.like_count <> COALESCE(fl.likes_count, 0)";
+        List<Long> filmIds = jdbcTemplate.query(sql, (rs, rowNum) -> rs.getLong("film_id"));
+        Map<Long, Integer> likesCount = new HashMap<>();
+        if (filmIds.isEmpty())
+            return likesCount;
+        recountLikes(filmIds);
+        namedParameterJdbcTemplate.query("SELECT film_id, like_count FROM films WHERE film_id IN (:ids)",
+                Map.of("ids", filmIds), rs -> {
+                    likesCount.put(rs.getLong("film_id"), rs.getInt("like_count"));
+                });
+        return likesCount;
+    }
+
+    @Override
+    public boolean containsLike(Long filmId, Long userId) {
+        String sql = "SELECT EXISTS (SELECT 1 FROM film_likes WHERE film_id = ? AND user_id = ?)";
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class, filmId, userId));
+    }
+
+    @Override
+    public Map<Long, Set<Long>> loadAllLikes() {
+        Map<Long, Set<Long>> likes = new HashMap<>();
+        String sql = "SELECT film_id, user_id FROM film_likes ORDER BY film_id, user_id";
+        jdbcTemplate.query(sql, rs -> {
+            likes.computeIfAbsent(rs.getLong("film_id"), id -> new LongSet()).add(rs.getLong("user_id"));
+        });
+        return likes;
     }
 
     @Override
-    public List<Long> loadPopularFilmsId(int count) {
-        String sql = "SELECT * FROM films f " +
-                "LEFT JOIN film_likes fl ON f.film_id = fl.film_id " +
-                "GROUP BY f.film_id " +
-                "ORDER BY COUNT(fl.user_id) DESC " +
-                "LIMIT ?";
-        return jdbcTemplate.query(sql, (rs, rowNum) -> rs.getLong("films.film_id"), count);
+    public void forEachLike(LikeConsumer action) {
+        String sql = "SELECT film_id, user_id FROM film_likes ORDER BY user_id, film_id";
+        jdbcTemplate.query(sql, rs -> {
+            action.accept(rs.getLong("film_id"), rs.getLong("user_id"));
+        });
     }
 
     @Override
-    public Set<Long> loadLikes(Long filmId) {
-        String sql = "SELECT * FROM film_likes WHERE film_id = ?";
-        return new HashSet<>(jdbcTemplate.query(sql, (rs, rowNum) -> rs.getLong("user_id"), filmId));
+    public List<Long> loadLikedFilmsId(Long userId) {
+        String sql = "SELECT film_id FROM film_likes WHERE user_id = ? ORDER BY film_id";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> rs.getLong("film_id"), userId);
+    }
+
+    private void recountLikes(Collection<Long> filmIds) {
+        String sql = "UPDATE films f SET like_count = " +
+                "(SELECT COUNT(*) FROM film_likes fl WHERE fl.film_id = f.film_id) " +
+                "WHERE f.film_id IN (:ids)";
+        namedParameterJdbcTemplate.update(sql, Map.of("ids", filmIds));
+    }
+
+    private List<Object[]> toBatchArgs(Map<Long, Set<Long>> likes) {
+        List<Object[]> batchArgs = new ArrayList<>();
+        likes.forEach((filmId, userIds) -> userIds.forEach(userId -> batchArgs.add(new Object[]{filmId, userId})));
+        return batchArgs;
     }
 }
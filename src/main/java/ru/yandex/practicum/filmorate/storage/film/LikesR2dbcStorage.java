@@ -0,0 +1,65 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import ru.yandex.practicum.filmorate.storage.interfaces.ReactiveLikesStorage;
+
+@Component
+@Profile("reactive")
+public class LikesR2dbcStorage implements ReactiveLikesStorage {
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final Scheduler databaseScheduler;
+
+    public LikesR2dbcStorage(DatabaseClient databaseClient, TransactionalOperator transactionalOperator,
+                             Scheduler databaseScheduler) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.databaseScheduler = databaseScheduler;
+    }
+
+    @Override
+    public Mono<Void> insertLike(Long filmId, Long userId) {
+        return databaseClient.sql("INSERT INTO film_likes (film_id, user_id) VALUES (:filmId, :userId)")
+                .bind("filmId", filmId)
+                .bind("userId", userId)
+                .then()
+                .then(shiftLikesCount(filmId, 1))
+                .as(transactionalOperator::transactional)
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Mono<Integer> deleteLike(Long filmId, Long userId) {
+        return databaseClient.sql("DELETE FROM film_likes WHERE film_id = :filmId AND user_id = :userId")
+                .bind("filmId", filmId)
+                .bind("userId", userId)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(deleted -> deleted == 0 ? Mono.just(0) : shiftLikesCount(filmId, -1).thenReturn(deleted))
+                .as(transactionalOperator::transactional)
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Mono<Boolean> containsLike(Long filmId, Long userId) {
+        return databaseClient.sql("SELECT EXISTS (SELECT 1 FROM film_likes " +
+                        "WHERE film_id = :filmId AND user_id = :userId) AS liked")
+                .bind("filmId", filmId)
+                .bind("userId", userId)
+                .map(row -> Boolean.TRUE.equals(row.get("liked", Boolean.class)))
+                .one()
+                .subscribeOn(databaseScheduler);
+    }
+
+    private Mono<Void> shiftLikesCount(Long filmId, int delta) {
+        return databaseClient.sql("UPDATE films SET like_count = like_count + :delta WHERE film_id = :filmId")
+                .bind("delta", delta)
+                .bind("filmId", filmId)
+                .then();
+    }
+}
@@ -3,11 +3,16 @@ package ru.yandex.practicum.filmorate.storage.interfaces;
 import ru.yandex.practicum.filmorate.model.Genre;
 
 import java.util.LinkedHashSet;
+import java.util.Map;
 
 public interface FilmGenreStorage {
     void insertGenres(long filmId, LinkedHashSet<Genre> genres);
 
+    void insertGenres(Map<Long, LinkedHashSet<Genre>> genres);
+
     void updateGenres(long filmId, LinkedHashSet<Genre> genres);
 
     LinkedHashSet<Genre> loadGenres(long filmId);
+
+    Map<Long, LinkedHashSet<Genre>> loadAllGenres();
 }
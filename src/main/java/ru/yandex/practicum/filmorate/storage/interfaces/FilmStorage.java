@@ -2,14 +2,30 @@ package ru.yandex.practicum.filmorate.storage.interfaces;
 
 import ru.yandex.practicum.filmorate.model.Film;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface FilmStorage {
     Long insertFilm(Film film);
 
+    List<Long> insertFilms(List<Film> films);
+
     Film updateFilm(Film film);
 
     List<Film> loadFilms();
 
-    Film getFilm(Long id);
+    List<Film> loadFilmsWithDetails(Collection<Long> ids);
+
+    List<Film> loadFilmsWithDetails(long afterId, int limit);
+
+    Film getFilmWithDetails(Long id);
+
+    void forEachFilmText(FilmTextConsumer action);
+
+    List<Long> searchFilmsId(List<String> terms, int count);
+
+    @FunctionalInterface
+    interface FilmTextConsumer {
+        void accept(long id, String name, String description);
+    }
 }
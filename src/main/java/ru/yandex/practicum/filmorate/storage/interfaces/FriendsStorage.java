@@ -2,14 +2,35 @@ package ru.yandex.practicum.filmorate.storage.interfaces;
 
 import ru.yandex.practicum.filmorate.model.Status;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public interface FriendsStorage {
     void insertFriend(Long id, Long friendId, Status status);
 
-    HashMap<Long, Status> loadFriends(Long id);
+    Map<Long, Status> loadFriends(Long id);
+
+    Map<Long, Map<Long, Status>> loadFriends(Collection<Long> ids);
+
+    Map<Long, Map<Long, Status>> loadAllFriends();
+
+    List<Long> loadCommonFriendsId(Long id, Long otherId);
+
+    List<Long> loadIncomingRequestsId(Long id);
+
+    List<Long> loadSuggestedFriendsId(Long id, int maxFriends, int count);
+
+    void forEachFriend(long[] ids, boolean incoming, FriendConsumer action);
 
     void updateStatus(Long id, Long friendId, Status status);
 
     void deleteFriend(Long id, Long friendId);
+
+    void deleteFriends(Long id);
+
+    @FunctionalInterface
+    interface FriendConsumer {
+        void accept(long id, long friendId, Status status);
+    }
 }
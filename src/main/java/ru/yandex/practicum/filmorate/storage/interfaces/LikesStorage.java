@@ -1,15 +1,33 @@
 package ru.yandex.practicum.filmorate.storage.interfaces;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface LikesStorage {
 
-    List<Long> loadPopularFilmsId(int count);
+    Map<Long, Integer> loadLikesCount();
+
+    Map<Long, Integer> repairLikesCount();
 
     void insertLike(Long filmId, Long userId);
 
-    void deleteLike(Long filmId, Long userId);
+    boolean deleteLike(Long filmId, Long userId);
+
+    void insertLikes(Map<Long, Set<Long>> likes);
+
+    void deleteLikes(Map<Long, Set<Long>> likes);
+
+    boolean containsLike(Long filmId, Long userId);
+
+    Map<Long, Set<Long>> loadAllLikes();
+
+    void forEachLike(LikeConsumer action);
+
+    List<Long> loadLikedFilmsId(Long userId);
 
-    Set<Long> loadLikes(Long filmId);
+    @FunctionalInterface
+    interface LikeConsumer {
+        void accept(long filmId, long userId);
+    }
 }
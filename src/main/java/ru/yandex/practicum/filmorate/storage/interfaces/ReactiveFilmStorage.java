@@ -0,0 +1,19 @@
+package ru.yandex.practicum.filmorate.storage.interfaces;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.util.Collection;
+
+public interface ReactiveFilmStorage {
+    Mono<Long> insertFilm(Film film);
+
+    Mono<Film> updateFilm(Film film);
+
+    Flux<Film> loadFilms();
+
+    Flux<Film> loadFilms(Collection<Long> ids);
+
+    Mono<Film> getFilm(Long id);
+}
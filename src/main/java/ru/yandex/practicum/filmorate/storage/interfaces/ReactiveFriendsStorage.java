@@ -0,0 +1,26 @@
+package ru.yandex.practicum.filmorate.storage.interfaces;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.model.Status;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ReactiveFriendsStorage {
+    Mono<Void> insertFriend(Long id, Long friendId, Status status);
+
+    Mono<Void> updateStatus(Long id, Long friendId, Status status);
+
+    Mono<Void> deleteFriend(Long id, Long friendId);
+
+    Mono<Map<Long, Status>> loadFriends(Long id);
+
+    Mono<Map<Long, Map<Long, Status>>> loadFriends(Collection<Long> ids);
+
+    Mono<Map<Long, Map<Long, Status>>> loadAllFriends();
+
+    Flux<Long> loadCommonFriendsId(Long id, Long otherId);
+
+    Flux<Long> loadIncomingRequestsId(Long id);
+}
@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.storage.interfaces;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveLikesStorage {
+    Mono<Void> insertLike(Long filmId, Long userId);
+
+    Mono<Integer> deleteLike(Long filmId, Long userId);
+
+    Mono<Boolean> containsLike(Long filmId, Long userId);
+}
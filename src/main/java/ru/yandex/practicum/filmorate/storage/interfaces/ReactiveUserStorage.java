@@ -0,0 +1,19 @@
+package ru.yandex.practicum.filmorate.storage.interfaces;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.Collection;
+
+public interface ReactiveUserStorage {
+    Mono<User> insertUser(User user);
+
+    Mono<User> updateUser(User user);
+
+    Flux<User> loadUsers();
+
+    Flux<User> loadUsers(Collection<Long> ids);
+
+    Mono<User> loadUser(Long id);
+}
@@ -2,14 +2,21 @@ package ru.yandex.practicum.filmorate.storage.interfaces;
 
 import ru.yandex.practicum.filmorate.model.User;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface UserStorage {
 
     List<User> loadUsers();
 
+    List<User> loadUsers(Collection<Long> ids);
+
+    List<User> loadUsers(long afterId, int limit);
+
     User insertUser(User user);
 
+    List<Long> insertUsers(List<User> users);
+
     User updateUser(User user);
 
     void deleteUser(Long id);
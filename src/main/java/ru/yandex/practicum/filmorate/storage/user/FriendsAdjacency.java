@@ -0,0 +1,233 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import ru.yandex.practicum.filmorate.model.Status;
+import ru.yandex.practicum.filmorate.storage.interfaces.FriendsStorage;
+import ru.yandex.practicum.filmorate.util.LongStatusMap;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * Списки смежности в сжатом виде (CSR): отсортированные id вершин, смещения их строк и общий массив соседей
+ * со статусами. Изменённые строки хранятся в отдельном слое и переносятся в сжатую часть методом compact.
+ * Класс не потокобезопасен, синхронизацию обеспечивает хранилище.
+ */
+class FriendsAdjacency {
+    private static final Status[] STATUSES = Status.values();
+
+    private long[] ids = new long[0];
+    private int[] offsets = new int[1];
+    private long[] targets = new long[0];
+    private byte[] statuses = new byte[0];
+    private final Map<Long, LongStatusMap> overlay = new HashMap<>();
+
+    /**
+     * Строит структуру по рёбрам, отсортированным по вершине и соседу.
+     */
+    static FriendsAdjacency ofSorted(long[] from, long[] to, byte[] status, int count) {
+        FriendsAdjacency adjacency = new FriendsAdjacency();
+        int vertices = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || from[i] != from[i - 1])
+                vertices++;
+        }
+        adjacency.ids = new long[vertices];
+        adjacency.offsets = new int[vertices + 1];
+        adjacency.targets = Arrays.copyOf(to, count);
+        adjacency.statuses = Arrays.copyOf(status, count);
+        int vertex = -1;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || from[i] != from[i - 1]) {
+                adjacency.ids[++vertex] = from[i];
+                adjacency.offsets[vertex] = i;
+            }
+        }
+        adjacency.offsets[vertices] = count;
+        return adjacency;
+    }
+
+    /**
+     * Строит обратную структуру: рёбра, отсортированные по вершине и соседу, раскладываются по соседям.
+     */
+    static FriendsAdjacency ofReversed(long[] from, long[] to, byte[] status, int count) {
+        long[] sortedTargets = Arrays.copyOf(to, count);
+        Arrays.sort(sortedTargets);
+        int vertices = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || sortedTargets[i] != sortedTargets[i - 1])
+                sortedTargets[vertices++] = sortedTargets[i];
+        }
+        FriendsAdjacency adjacency = new FriendsAdjacency();
+        adjacency.ids = Arrays.copyOf(sortedTargets, vertices);
+        adjacency.offsets = new int[vertices + 1];
+        for (int i = 0; i < count; i++)
+            adjacency.offsets[Arrays.binarySearch(adjacency.ids, to[i]) + 1]++;
+        for (int i = 0; i < vertices; i++)
+            adjacency.offsets[i + 1] += adjacency.offsets[i];
+        int[] positions = Arrays.copyOf(adjacency.offsets, vertices);
+        adjacency.targets = new long[count];
+        adjacency.statuses = new byte[count];
+        for (int i = 0; i < count; i++) {
+            int position = positions[Arrays.binarySearch(adjacency.ids, to[i])]++;
+            adjacency.targets[position] = from[i];
+            adjacency.statuses[position] = status[i];
+        }
+        return adjacency;
+    }
+
+    LongStatusMap row(long id) {
+        LongStatusMap changed = overlay.get(id);
+        LongStatusMap row = new LongStatusMap();
+        if (changed != null) {
+            changed.forEach(row::put);
+            return row;
+        }
+        int vertex = Arrays.binarySearch(ids, id);
+        if (vertex >= 0) {
+            for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++)
+                row.put(targets[i], STATUSES[statuses[i]]);
+        }
+        return row;
+    }
+
+    long[] neighbours(long id) {
+        LongStatusMap changed = overlay.get(id);
+        if (changed != null)
+            return changed.keysToLongArray();
+        int vertex = Arrays.binarySearch(ids, id);
+        return vertex < 0 ? new long[0] : Arrays.copyOfRange(targets, offsets[vertex], offsets[vertex + 1]);
+    }
+
+    void forEachNeighbour(long id, LongConsumer action) {
+        LongStatusMap changed = overlay.get(id);
+        if (changed != null) {
+            for (long target : changed.keysToLongArray())
+                action.accept(target);
+            return;
+        }
+        int vertex = Arrays.binarySearch(ids, id);
+        if (vertex >= 0) {
+            for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++)
+                action.accept(targets[i]);
+        }
+    }
+
+    void forEachFriend(long id, FriendsStorage.FriendConsumer action) {
+        LongStatusMap changed = overlay.get(id);
+        if (changed != null) {
+            for (Map.Entry<Long, Status> friend : changed.entrySet())
+                action.accept(id, friend.getKey(), friend.getValue());
+            return;
+        }
+        int vertex = Arrays.binarySearch(ids, id);
+        if (vertex >= 0) {
+            for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++)
+                action.accept(id, targets[i], STATUSES[statuses[i]]);
+        }
+    }
+
+    Status get(long id, long target) {
+        LongStatusMap changed = overlay.get(id);
+        if (changed != null)
+            return changed.get(target);
+        int vertex = Arrays.binarySearch(ids, id);
+        if (vertex < 0)
+            return null;
+        int index = Arrays.binarySearch(targets, offsets[vertex], offsets[vertex + 1], target);
+        return index < 0 ? null : STATUSES[statuses[index]];
+    }
+
+    void put(long id, long target, Status status) {
+        mutableRow(id).put(target, status);
+    }
+
+    void remove(long id, long target) {
+        mutableRow(id).remove(target);
+    }
+
+    void removeRow(long id) {
+        overlay.put(id, new LongStatusMap());
+    }
+
+    long[] vertices() {
+        return LongStream.concat(Arrays.stream(ids), overlay.keySet().stream().mapToLong(Long::longValue))
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    int changedRows() {
+        return overlay.size();
+    }
+
+    int size() {
+        int size = targets.length;
+        for (Map.Entry<Long, LongStatusMap> entry : overlay.entrySet())
+            size += entry.getValue().size() - rowSize(entry.getKey());
+        return size;
+    }
+
+    void compact() {
+        if (overlay.isEmpty())
+            return;
+        long[] changedIds = overlay.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        int edges = size();
+        long[] newIds = new long[ids.length + changedIds.length];
+        int[] newOffsets = new int[newIds.length + 1];
+        long[] newTargets = new long[edges];
+        byte[] newStatuses = new byte[edges];
+        int vertices = 0;
+        int position = 0;
+        int i = 0;
+        int j = 0;
+        while (i < ids.length || j < changedIds.length) {
+            long id;
+            if (j == changedIds.length || i < ids.length && ids[i] < changedIds[j]) {
+                id = ids[i];
+                int from = offsets[i];
+                int length = offsets[i + 1] - from;
+                System.arraycopy(targets, from, newTargets, position, length);
+                System.arraycopy(statuses, from, newStatuses, position, length);
+                newOffsets[vertices] = position;
+                position += length;
+                i++;
+            } else {
+                id = changedIds[j];
+                if (i < ids.length && ids[i] == id)
+                    i++;
+                newOffsets[vertices] = position;
+                for (Map.Entry<Long, Status> friend : overlay.get(id).entrySet()) {
+                    newTargets[position] = friend.getKey();
+                    newStatuses[position++] = (byte) friend.getValue().ordinal();
+                }
+                j++;
+            }
+            if (newOffsets[vertices] == position)
+                continue;
+            newIds[vertices++] = id;
+        }
+        newOffsets[vertices] = position;
+        ids = Arrays.copyOf(newIds, vertices);
+        offsets = Arrays.copyOf(newOffsets, vertices + 1);
+        targets = newTargets;
+        statuses = newStatuses;
+        overlay.clear();
+    }
+
+    private LongStatusMap mutableRow(long id) {
+        LongStatusMap row = overlay.get(id);
+        if (row == null) {
+            row = row(id);
+            overlay.put(id, row);
+        }
+        return row;
+    }
+
+    private int rowSize(long id) {
+        int vertex = Arrays.binarySearch(ids, id);
+        return vertex < 0 ? 0 : offsets[vertex + 1] - offsets[vertex];
+    }
+}
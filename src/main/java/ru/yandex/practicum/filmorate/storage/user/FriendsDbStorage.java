@@ -1,18 +1,31 @@
 package ru.yandex.practicum.filmorate.storage.user;
 
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Component;
 import ru.yandex.practicum.filmorate.model.Status;
+import ru.yandex.practicum.filmorate.storage.ReferenceDataRegistry;
 import ru.yandex.practicum.filmorate.storage.interfaces.FriendsStorage;
+import ru.yandex.practicum.filmorate.util.LongStatusMap;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 public class FriendsDbStorage implements FriendsStorage {
+    private static final int BATCH_SIZE = 1000;
+
     private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ReferenceDataRegistry referenceDataRegistry;
 
-    public FriendsDbStorage(JdbcTemplate jdbcTemplate) {
+    public FriendsDbStorage(JdbcTemplate jdbcTemplate, ReferenceDataRegistry referenceDataRegistry) {
         this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.referenceDataRegistry = referenceDataRegistry;
     }
 
     public void insertFriend(Long id, Long friendId, Status status) {
@@ -27,20 +40,103 @@ public class FriendsDbStorage implements FriendsStorage {
     }
 
     @Override
-    public HashMap<Long, Status> loadFriends(Long id) {
-        String sql = "SELECT f.friend_id, s.name " +
-                "FROM friends f " +
-                "LEFT JOIN status s ON f.status_id = s.status_id" +
-                " WHERE f.user_id = ?";
-        HashMap<Long, Status> userFriends = new HashMap<>();
+    public void deleteFriends(Long id) {
+        jdbcTemplate.update("DELETE FROM friends WHERE user_id = ?", id);
+        jdbcTemplate.update("DELETE FROM friends WHERE friend_id = ?", id);
+    }
+
+    @Override
+    public Map<Long, Status> loadFriends(Long id) {
+        String sql = "SELECT friend_id, status_id FROM friends WHERE user_id = ? ORDER BY friend_id";
+        LongStatusMap userFriends = new LongStatusMap();
 
         jdbcTemplate.query(sql, (rs, rowNum) -> {
-            userFriends.put(rs.getLong("friend_id"), Status.valueOf(rs.getString("name")));
+            userFriends.put(rs.getLong("friend_id"), referenceDataRegistry.getStatus(rs.getInt("status_id")));
             return null;
         }, id);
         return userFriends;
     }
 
+    @Override
+    public Map<Long, Map<Long, Status>> loadFriends(Collection<Long> ids) {
+        Map<Long, Map<Long, Status>> friends = new HashMap<>();
+        if (ids.isEmpty())
+            return friends;
+        String sql = "SELECT user_id, friend_id, status_id FROM friends WHERE user_id IN (:ids) " +
+                "ORDER BY user_id, friend_id";
+        namedParameterJdbcTemplate.query(sql, Map.of("ids", ids), rs -> {
+            friends.computeIfAbsent(rs.getLong("user_id"), id -> new LongStatusMap())
+                    .put(rs.getLong("friend_id"), referenceDataRegistry.getStatus(rs.getInt("status_id")));
+        });
+        return friends;
+    }
+
+    @Override
+    public Map<Long, Map<Long, Status>> loadAllFriends() {
+        Map<Long, Map<Long, Status>> friends = new HashMap<>();
+        String sql = "SELECT user_id, friend_id, status_id FROM friends ORDER BY user_id, friend_id";
+        jdbcTemplate.query(sql, rs -> {
+            friends.computeIfAbsent(rs.getLong("user_id"), id -> new LongStatusMap())
+                    .put(rs.getLong("friend_id"), referenceDataRegistry.getStatus(rs.getInt("status_id")));
+        });
+        return friends;
+    }
+
+    public void forEachFriend(FriendConsumer action) {
+        String sql = "SELECT user_id, friend_id, status_id FROM friends ORDER BY user_id, friend_id";
+        jdbcTemplate.query(sql, rs -> {
+            action.accept(rs.getLong("user_id"), rs.getLong("friend_id"),
+                    referenceDataRegistry.getStatus(rs.getInt("status_id")));
+        });
+    }
+
+    @Override
+    public void forEachFriend(long[] ids, boolean incoming, FriendConsumer action) {
+        String sql = incoming
+                ? "SELECT friend_id AS id, user_id AS other_id, status_id FROM friends WHERE friend_id IN (:ids)"
+                : "SELECT user_id AS id, friend_id AS other_id, status_id FROM friends WHERE user_id IN (:ids)";
+        for (int from = 0; from < ids.length; from += BATCH_SIZE) {
+            List<Long> batch = new ArrayList<>(Math.min(BATCH_SIZE, ids.length - from));
+            for (int i = from; i < Math.min(from + BATCH_SIZE, ids.length); i++)
+                batch.add(ids[i]);
+            namedParameterJdbcTemplate.query(sql, Map.of("ids", batch), rs -> {
+                action.accept(rs.getLong("id"), rs.getLong("other_id"),
+                        referenceDataRegistry.getStatus(rs.getInt("status_id")));
+            });
+        }
+    }
+
+    @Override
+    public List<Long> loadCommonFriendsId(Long id, Long otherId) {
+        String sql = "SELECT f.friend_id " +
+                "FROM friends f " +
+                "JOIN friends o ON f.friend_id = o.friend_id " +
+                "WHERE f.user_id = ? AND o.user_id = ? " +
+                "ORDER BY f.friend_id";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> rs.getLong("friend_id"), id, otherId);
+    }
+
+    @Override
+    public List<Long> loadIncomingRequestsId(Long id) {
+        String sql = "SELECT user_id FROM friends WHERE friend_id = ? AND status_id = ? ORDER BY user_id";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> rs.getLong("user_id"), id,
+                Status.UNCONFIRMED.getStatusId());
+    }
+
+    @Override
+    public List<Long> loadSuggestedFriendsId(Long id, int maxFriends, int count) {
+        String sql = "SELECT s.friend_id, COUNT(*) AS mutual " +
+                "FROM (SELECT friend_id FROM friends WHERE user_id = :id ORDER BY friend_id LIMIT :maxFriends) f " +
+                "JOIN friends s ON s.user_id = f.friend_id " +
+                "GROUP BY s.friend_id " +
+                "HAVING s.friend_id <> :id " +
+                "AND NOT EXISTS (SELECT 1 FROM friends e WHERE e.user_id = :id AND e.friend_id = s.friend_id) " +
+                "ORDER BY mutual DESC, s.friend_id " +
+                "LIMIT :count";
+        return namedParameterJdbcTemplate.query(sql, Map.of("id", id, "maxFriends", maxFriends, "count", count),
+                (rs, rowNum) -> rs.getLong("friend_id"));
+    }
+
     @Override
     public void updateStatus(Long id, Long friendId, Status status) {
         String sql = "UPDATE friends SET status_id = ? WHERE user_id = ? AND friend_id = ?";
@@ -0,0 +1,282 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.filmorate.model.Status;
+import ru.yandex.practicum.filmorate.storage.interfaces.FriendsStorage;
+import ru.yandex.practicum.filmorate.util.LongCounter;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Хранилище друзей для профиля friends-graph. Таблица friends целиком хранится в памяти в виде сжатых списков
+ * смежности: исходящие заявки пользователя и входящие заявки к нему. Чтение не обращается к базе, изменения
+ * сначала записываются в базу через FriendsDbStorage, а затем применяются к памяти; внутри транзакции -
+ * после её фиксации. Блокировка на запись берётся только на время изменения памяти, а не запроса к базе.
+ * Когда изменённых строк становится больше порога, они переносятся в сжатую часть.
+ */
+@Slf4j
+@Primary
+@Component
+@Profile("friends-graph")
+public class FriendsGraphStorage implements FriendsStorage {
+    private final FriendsDbStorage friendsDbStorage;
+    private final int compactionThreshold;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private FriendsAdjacency outgoing = new FriendsAdjacency();
+    private FriendsAdjacency incoming = new FriendsAdjacency();
+
+    public FriendsGraphStorage(FriendsDbStorage friendsDbStorage,
+                               @Value("${filmorate.friends-graph.compaction-threshold:1024}") int compactionThreshold) {
+        this.friendsDbStorage = friendsDbStorage;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    @PostConstruct
+    public void load() {
+        long start = System.currentTimeMillis();
+        Edges edges = new Edges();
+        friendsDbStorage.forEachFriend(edges::add);
+        FriendsAdjacency loadedOutgoing = FriendsAdjacency.ofSorted(edges.from, edges.to, edges.statuses, edges.size);
+        FriendsAdjacency loadedIncoming = FriendsAdjacency.ofReversed(edges.from, edges.to, edges.statuses,
+                edges.size);
+        lock.writeLock().lock();
+        try {
+            outgoing = loadedOutgoing;
+            incoming = loadedIncoming;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Граф друзей загружен в память за {} мс: связей {}", System.currentTimeMillis() - start, edges.size);
+    }
+
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            outgoing.compact();
+            incoming.compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void insertFriend(Long id, Long friendId, Status status) {
+        write(() -> friendsDbStorage.insertFriend(id, friendId, status), () -> {
+            outgoing.put(id, friendId, status);
+            incoming.put(friendId, id, status);
+        });
+    }
+
+    @Override
+    public void updateStatus(Long id, Long friendId, Status status) {
+        write(() -> friendsDbStorage.updateStatus(id, friendId, status), () -> {
+            if (outgoing.get(id, friendId) == null)
+                return;
+            outgoing.put(id, friendId, status);
+            incoming.put(friendId, id, status);
+        });
+    }
+
+    @Override
+    public void deleteFriend(Long id, Long friendId) {
+        write(() -> friendsDbStorage.deleteFriend(id, friendId), () -> {
+            outgoing.remove(id, friendId);
+            incoming.remove(friendId, id);
+        });
+    }
+
+    @Override
+    public void deleteFriends(Long id) {
+        write(() -> friendsDbStorage.deleteFriends(id), () -> {
+            for (long friendId : outgoing.neighbours(id))
+                incoming.remove(friendId, id);
+            for (long userId : incoming.neighbours(id))
+                outgoing.remove(userId, id);
+            outgoing.removeRow(id);
+            incoming.removeRow(id);
+        });
+    }
+
+    @Override
+    public Map<Long, Status> loadFriends(Long id) {
+        lock.readLock().lock();
+        try {
+            return outgoing.row(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Long, Map<Long, Status>> loadFriends(Collection<Long> ids) {
+        Map<Long, Map<Long, Status>> friends = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                Map<Long, Status> userFriends = outgoing.row(id);
+                if (!userFriends.isEmpty())
+                    friends.put(id, userFriends);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return friends;
+    }
+
+    @Override
+    public Map<Long, Map<Long, Status>> loadAllFriends() {
+        lock.readLock().lock();
+        try {
+            Map<Long, Map<Long, Status>> friends = new HashMap<>();
+            for (long id : outgoing.vertices()) {
+                Map<Long, Status> userFriends = outgoing.row(id);
+                if (!userFriends.isEmpty())
+                    friends.put(id, userFriends);
+            }
+            return friends;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> loadCommonFriendsId(Long id, Long otherId) {
+        long[] friends;
+        long[] otherFriends;
+        lock.readLock().lock();
+        try {
+            friends = outgoing.neighbours(id);
+            otherFriends = outgoing.neighbours(otherId);
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Long> commonFriends = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < friends.length && j < otherFriends.length) {
+            if (friends[i] < otherFriends[j]) {
+                i++;
+            } else if (friends[i] > otherFriends[j]) {
+                j++;
+            } else {
+                commonFriends.add(friends[i]);
+                i++;
+                j++;
+            }
+        }
+        return commonFriends;
+    }
+
+    @Override
+    public List<Long> loadIncomingRequestsId(Long id) {
+        List<Long> requests = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            incoming.row(id).forEach((userId, status) -> {
+                if (status == Status.UNCONFIRMED)
+                    requests.add(userId);
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return requests;
+    }
+
+    @Override
+    public List<Long> loadSuggestedFriendsId(Long id, int maxFriends, int count) {
+        LongCounter mutualFriends;
+        lock.readLock().lock();
+        try {
+            long[] friendIds = outgoing.neighbours(id);
+            int expanded = Math.min(friendIds.length, maxFriends);
+            LongCounter counter = new LongCounter(expanded * 4);
+            counter.exclude(id);
+            for (long friendId : friendIds)
+                counter.exclude(friendId);
+            for (int i = 0; i < expanded; i++)
+                outgoing.forEachNeighbour(friendIds[i], counter::increment);
+            mutualFriends = counter;
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Long> suggestions = new ArrayList<>();
+        for (long candidate : mutualFriends.top(count))
+            suggestions.add(candidate);
+        return suggestions;
+    }
+
+    @Override
+    public void forEachFriend(long[] ids, boolean incoming, FriendConsumer action) {
+        lock.readLock().lock();
+        try {
+            FriendsAdjacency adjacency = incoming ? this.incoming : outgoing;
+            for (long id : ids)
+                adjacency.forEachFriend(id, action);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Runnable databaseChange, Runnable memoryChange) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            databaseChange.run();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(memoryChange);
+                }
+            });
+            return;
+        }
+        databaseChange.run();
+        apply(memoryChange);
+    }
+
+    private void apply(Runnable memoryChange) {
+        lock.writeLock().lock();
+        try {
+            applyLocked(memoryChange);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyLocked(Runnable memoryChange) {
+        memoryChange.run();
+        if (outgoing.changedRows() + incoming.changedRows() > compactionThreshold) {
+            outgoing.compact();
+            incoming.compact();
+        }
+    }
+
+    private static class Edges {
+        private long[] from = new long[1024];
+        private long[] to = new long[1024];
+        private byte[] statuses = new byte[1024];
+        private int size;
+
+        private void add(long id, long friendId, Status status) {
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+                statuses = Arrays.copyOf(statuses, size * 2);
+            }
+            from[size] = id;
+            to[size] = friendId;
+            statuses[size++] = (byte) status.ordinal();
+        }
+    }
+}
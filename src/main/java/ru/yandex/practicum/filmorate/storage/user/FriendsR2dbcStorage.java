@@ -0,0 +1,123 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import ru.yandex.practicum.filmorate.model.Status;
+import ru.yandex.practicum.filmorate.storage.ReferenceDataRegistry;
+import ru.yandex.practicum.filmorate.storage.interfaces.ReactiveFriendsStorage;
+import ru.yandex.practicum.filmorate.util.LongStatusMap;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@Profile("reactive")
+public class FriendsR2dbcStorage implements ReactiveFriendsStorage {
+    private final DatabaseClient databaseClient;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final Scheduler databaseScheduler;
+
+    public FriendsR2dbcStorage(DatabaseClient databaseClient, ReferenceDataRegistry referenceDataRegistry,
+                               Scheduler databaseScheduler) {
+        this.databaseClient = databaseClient;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.databaseScheduler = databaseScheduler;
+    }
+
+    @Override
+    public Mono<Void> insertFriend(Long id, Long friendId, Status status) {
+        return databaseClient.sql("INSERT INTO friends (user_id, friend_id, status_id) VALUES (:id, :friendId, :status)")
+                .bind("id", id)
+                .bind("friendId", friendId)
+                .bind("status", status.getStatusId())
+                .then()
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Mono<Void> updateStatus(Long id, Long friendId, Status status) {
+        return databaseClient.sql("UPDATE friends SET status_id = :status WHERE user_id = :id AND friend_id = :friendId")
+                .bind("status", status.getStatusId())
+                .bind("id", id)
+                .bind("friendId", friendId)
+                .then()
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Mono<Void> deleteFriend(Long id, Long friendId) {
+        return databaseClient.sql("DELETE FROM friends WHERE user_id = :id AND friend_id = :friendId")
+                .bind("id", id)
+                .bind("friendId", friendId)
+                .then()
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Mono<Map<Long, Status>> loadFriends(Long id) {
+        return databaseClient.sql("SELECT friend_id, status_id FROM friends WHERE user_id = :id ORDER BY friend_id")
+                .bind("id", id)
+                .map(row -> Map.entry(row.get("friend_id", Long.class),
+                        referenceDataRegistry.getStatus(row.get("status_id", Byte.class))))
+                .all()
+                .<Map<Long, Status>>collect(LongStatusMap::new, (friends, friend) -> friends.put(friend.getKey(), friend.getValue()))
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Mono<Map<Long, Map<Long, Status>>> loadFriends(Collection<Long> ids) {
+        if (ids.isEmpty())
+            return Mono.just(new HashMap<>());
+        return collectFriends(databaseClient.sql("SELECT user_id, friend_id, status_id FROM friends " +
+                        "WHERE user_id IN (:ids) ORDER BY user_id, friend_id")
+                .bind("ids", ids))
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Mono<Map<Long, Map<Long, Status>>> loadAllFriends() {
+        return collectFriends(databaseClient.sql("SELECT user_id, friend_id, status_id FROM friends " +
+                "ORDER BY user_id, friend_id"))
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Flux<Long> loadCommonFriendsId(Long id, Long otherId) {
+        String sql = "SELECT f.friend_id " +
+                "FROM friends f " +
+                "JOIN friends o ON f.friend_id = o.friend_id " +
+                "WHERE f.user_id = :id AND o.user_id = :otherId " +
+                "ORDER BY f.friend_id";
+        return databaseClient.sql(sql)
+                .bind("id", id)
+                .bind("otherId", otherId)
+                .map(row -> row.get("friend_id", Long.class))
+                .all()
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Flux<Long> loadIncomingRequestsId(Long id) {
+        return databaseClient.sql("SELECT user_id FROM friends WHERE friend_id = :id AND status_id = :status " +
+                        "ORDER BY user_id")
+                .bind("id", id)
+                .bind("status", Status.UNCONFIRMED.getStatusId())
+                .map(row -> row.get("user_id", Long.class))
+                .all()
+                .subscribeOn(databaseScheduler);
+    }
+
+    private Mono<Map<Long, Map<Long, Status>>> collectFriends(DatabaseClient.GenericExecuteSpec spec) {
+        return spec.map(row -> new long[]{row.get("user_id", Long.class), row.get("friend_id", Long.class),
+                        row.get("status_id", Byte.class)})
+                .all()
+                .<Map<Long, Map<Long, Status>>>collect(HashMap::new, (friends, row) -> friends
+                        .computeIfAbsent(row[0], id -> new LongStatusMap())
+                        .put(row[1], referenceDataRegistry.getStatus((int) row[2])));
+    }
+}
@@ -3,6 +3,8 @@ package ru.yandex.practicum.filmorate.storage.user;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Component;
@@ -10,31 +12,67 @@ import ru.yandex.practicum.filmorate.exceptions.UserNotFoundException;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.storage.interfaces.UserStorage;
 
-import java.util.HashMap;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Component
 @Qualifier("UserDbStorage")
 public class UserDbStorage implements UserStorage {
     private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final SimpleJdbcInsert userInsert;
 
     @Autowired
     public UserDbStorage(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        SimpleJdbcInsert insert = new SimpleJdbcInsert(jdbcTemplate);
+        insert.withTableName("users")
+                .usingColumns("email", "login", "name", "birthday")
+                .usingGeneratedKeyColumns("user_id")
+                .withoutTableColumnMetaDataAccess();
+        insert.compile();
+        this.userInsert = insert;
     }
 
     @Override
     public User insertUser(User user) {
-        SimpleJdbcInsert simpleJdbcInsert = new SimpleJdbcInsert(jdbcTemplate)
-                .withTableName("users")
-                .usingGeneratedKeyColumns("user_id");
-        Long id = simpleJdbcInsert.executeAndReturnKey(new HashMap<String, Object>() {{
-            put("email", user.getEmail());
-            put("login", user.getLogin());
-            put("name", user.getName());
-            put("birthday", user.getBirthday());
-        }}).longValue();
-        return loadUser(id);
+        long id = userInsert.executeAndReturnKey(new MapSqlParameterSource()
+                .addValue("email", user.getEmail())
+                .addValue("login", user.getLogin())
+                .addValue("name", user.getName())
+                .addValue("birthday", user.getBirthday())).longValue();
+        return user.toBuilder().id(id).build();
+    }
+
+    @Override
+    public List<Long> insertUsers(List<User> users) {
+        String sql = "INSERT INTO users (email, login, name, birthday) VALUES (?, ?, ?, ?)";
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql, new String[]{"user_id"})) {
+                for (User user : users) {
+                    ps.setString(1, user.getEmail());
+                    ps.setString(2, user.getLogin());
+                    ps.setString(3, user.getName());
+                    ps.setDate(4, Date.valueOf(user.getBirthday()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                List<Long> ids = new ArrayList<>(users.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next())
+                        ids.add(keys.getLong(1));
+                }
+                return ids;
+            }
+        });
     }
 
     @Override
@@ -52,13 +90,21 @@ public class UserDbStorage implements UserStorage {
     @Override
     public List<User> loadUsers() {
         String sql = "SELECT * FROM users";
-        return jdbcTemplate.query(sql, (rs, rowNum) ->
-                User.builder().id(rs.getLong("user_id"))
-                        .email(rs.getString("email"))
-                        .login(rs.getString("login"))
-                        .name(rs.getString("name"))
-                        .birthday(rs.getDate("birthday").toLocalDate())
-                        .build());
+        return jdbcTemplate.query(sql, this::mapRowToUser);
+    }
+
+    @Override
+    public List<User> loadUsers(Collection<Long> ids) {
+        if (ids.isEmpty())
+            return new ArrayList<>();
+        String sql = "SELECT * FROM users WHERE user_id IN (:ids)";
+        return namedParameterJdbcTemplate.query(sql, Map.of("ids", ids), this::mapRowToUser);
+    }
+
+    @Override
+    public List<User> loadUsers(long afterId, int limit) {
+        String sql = "SELECT * FROM users WHERE user_id > ? ORDER BY user_id LIMIT ?";
+        return jdbcTemplate.query(sql, this::mapRowToUser, afterId, limit);
     }
 
     @Override
@@ -85,4 +131,13 @@ public class UserDbStorage implements UserStorage {
             throw new UserNotFoundException(String.format("Пользователя с id %d не существует, " +
                     "поэтому он не может быть удалён.", id));
     }
-}
+
+    private User mapRowToUser(ResultSet rs, int rowNum) throws SQLException {
+        return User.builder().id(rs.getLong("user_id"))
+                .email(rs.getString("email"))
+                .login(rs.getString("login"))
+                .name(rs.getString("name"))
+                .birthday(rs.getDate("birthday").toLocalDate())
+                .build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import io.r2dbc.spi.Row;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import ru.yandex.practicum.filmorate.exceptions.UserNotFoundException;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.interfaces.ReactiveUserStorage;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+@Component
+@Profile("reactive")
+public class UserR2dbcStorage implements ReactiveUserStorage {
+    private final DatabaseClient databaseClient;
+    private final Scheduler databaseScheduler;
+
+    public UserR2dbcStorage(DatabaseClient databaseClient, Scheduler databaseScheduler) {
+        this.databaseClient = databaseClient;
+        this.databaseScheduler = databaseScheduler;
+    }
+
+    @Override
+    public Mono<User> insertUser(User user) {
+        String sql = "INSERT INTO users (email, login, name, birthday) VALUES (:email, :login, :name, :birthday)";
+        return databaseClient.sql(sql)
+                .bind("email", user.getEmail())
+                .bind("login", user.getLogin())
+                .bind("name", user.getName())
+                .bind("birthday", user.getBirthday())
+                .filter(statement -> statement.returnGeneratedValues("user_id"))
+                .map(row -> row.get("user_id", Long.class))
+                .one()
+                .map(id -> user.toBuilder().id(id).build())
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Mono<User> updateUser(User user) {
+        String sql = "UPDATE users SET email = :email, login = :login, name = :name, birthday = :birthday " +
+                "WHERE user_id = :id";
+        return databaseClient.sql(sql)
+                .bind("email", user.getEmail())
+                .bind("login", user.getLogin())
+                .bind("name", user.getName())
+                .bind("birthday", user.getBirthday())
+                .bind("id", user.getId())
+                .then()
+                .then(loadUser(user.getId()))
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Flux<User> loadUsers() {
+        return databaseClient.sql("SELECT * FROM users ORDER BY user_id")
+                .map(this::mapRowToUser)
+                .all()
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Flux<User> loadUsers(Collection<Long> ids) {
+        if (ids.isEmpty())
+            return Flux.empty();
+        return databaseClient.sql("SELECT * FROM users WHERE user_id IN (:ids)")
+                .bind("ids", ids)
+                .map(this::mapRowToUser)
+                .all()
+                .subscribeOn(databaseScheduler);
+    }
+
+    @Override
+    public Mono<User> loadUser(Long id) {
+        return databaseClient.sql("SELECT * FROM users WHERE user_id = :id")
+                .bind("id", id)
+                .map(this::mapRowToUser)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(
+                        String.format("Пользователя с id %d не существует.", id))))
+                .subscribeOn(databaseScheduler);
+    }
+
+    private User mapRowToUser(Row row) {
+        return User.builder().id(row.get("user_id", Long.class))
+                .email(row.get("email", String.class))
+                .login(row.get("login", String.class))
+                .name(row.get("name", String.class))
+                .birthday(row.get("birthday", LocalDate.class))
+                .build();
+    }
+}
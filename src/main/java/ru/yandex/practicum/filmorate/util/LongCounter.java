@@ -0,0 +1,111 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.util.Arrays;
+
+/**
+ * Счётчики по ключам long на открытой адресации без упаковки значений.
+ */
+public class LongCounter {
+    private long[] keys;
+    private int[] counts;
+    private int size;
+
+    public LongCounter() {
+        this(16);
+    }
+
+    public LongCounter(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        counts = new int[capacity];
+    }
+
+    public void increment(long key) {
+        int index = indexOf(keys, counts, key);
+        if (counts[index] == 0) {
+            keys[index] = key;
+            if (++size * 2 > keys.length) {
+                counts[index] = 1;
+                grow();
+                return;
+            }
+        }
+        counts[index]++;
+    }
+
+    /**
+     * Исключает ключ из выдачи top: его счётчик остаётся отрицательным при любом числе увеличений.
+     */
+    public void exclude(long key) {
+        int index = indexOf(keys, counts, key);
+        if (counts[index] == 0) {
+            keys[index] = key;
+            if (++size * 2 > keys.length) {
+                counts[index] = Integer.MIN_VALUE;
+                grow();
+                return;
+            }
+        }
+        counts[index] = Integer.MIN_VALUE;
+    }
+
+    public int get(long key) {
+        return counts[indexOf(keys, counts, key)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает до count ключей с наибольшими счётчиками; при равенстве раньше идёт меньший ключ.
+     */
+    public long[] top(int count) {
+        int limit = Math.min(count, size);
+        long[] topKeys = new long[limit];
+        int[] topCounts = new int[limit];
+        int found = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (counts[i] <= 0)
+                continue;
+            int position = found;
+            while (position > 0 && ranksBefore(counts[i], keys[i], topCounts[position - 1], topKeys[position - 1]))
+                position--;
+            if (position == limit)
+                continue;
+            int moved = Math.min(found, limit - 1) - position;
+            System.arraycopy(topKeys, position, topKeys, position + 1, moved);
+            System.arraycopy(topCounts, position, topCounts, position + 1, moved);
+            topKeys[position] = keys[i];
+            topCounts[position] = counts[i];
+            found = Math.min(found + 1, limit);
+        }
+        return found == limit ? topKeys : Arrays.copyOf(topKeys, found);
+    }
+
+    private static boolean ranksBefore(int count, long key, int otherCount, long otherKey) {
+        return count > otherCount || count == otherCount && key < otherKey;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new long[oldKeys.length * 2];
+        counts = new int[oldCounts.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldCounts[i] != 0) {
+                int index = indexOf(keys, counts, oldKeys[i]);
+                keys[index] = oldKeys[i];
+                counts[index] = oldCounts[i];
+            }
+        }
+    }
+
+    private static int indexOf(long[] keys, int[] counts, long key) {
+        int mask = keys.length - 1;
+        int index = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (counts[index] != 0 && keys[index] != key)
+            index = (index + 1) & mask;
+        return index;
+    }
+}
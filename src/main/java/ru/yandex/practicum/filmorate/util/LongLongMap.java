@@ -0,0 +1,88 @@
+package ru.yandex.practicum.filmorate.util;
+
+/**
+ * Отображение long в long на открытой адресации без упаковки значений.
+ */
+public class LongLongMap {
+    private long[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+
+    public LongLongMap() {
+        this(16);
+    }
+
+    public LongLongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+    }
+
+    /**
+     * Добавляет значение, только если ключа ещё нет; возвращает true, если значение добавлено.
+     */
+    public boolean putIfAbsent(long key, long value) {
+        int index = indexOf(keys, used, key);
+        if (used[index])
+            return false;
+        keys[index] = key;
+        values[index] = value;
+        used[index] = true;
+        if (++size * 2 > keys.length)
+            grow();
+        return true;
+    }
+
+    public void put(long key, long value) {
+        int index = indexOf(keys, used, key);
+        if (used[index]) {
+            values[index] = value;
+            return;
+        }
+        keys[index] = key;
+        values[index] = value;
+        used[index] = true;
+        if (++size * 2 > keys.length)
+            grow();
+    }
+
+    public long getOrDefault(long key, long defaultValue) {
+        int index = indexOf(keys, used, key);
+        return used[index] ? values[index] : defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        return used[indexOf(keys, used, key)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new long[oldKeys.length * 2];
+        values = new long[oldValues.length * 2];
+        used = new boolean[oldUsed.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int index = indexOf(keys, used, oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                used[index] = true;
+            }
+        }
+    }
+
+    private static int indexOf(long[] keys, boolean[] used, long key) {
+        int mask = keys.length - 1;
+        int index = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (used[index] && keys[index] != key)
+            index = (index + 1) & mask;
+        return index;
+    }
+}
@@ -0,0 +1,157 @@
+package ru.yandex.practicum.filmorate.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+@JsonSerialize(using = LongSet.Serializer.class)
+public class LongSet extends AbstractSet<Long> {
+    private static final long[] EMPTY = new long[0];
+
+    private long[] values;
+    private int size;
+
+    public LongSet() {
+        this.values = EMPTY;
+    }
+
+    public LongSet(int capacity) {
+        this.values = capacity == 0 ? EMPTY : new long[capacity];
+    }
+
+    public static LongSet of(long... values) {
+        LongSet set = new LongSet(values.length);
+        for (long value : values)
+            set.add(value);
+        return set;
+    }
+
+    public boolean add(long value) {
+        if (size == 0 || values[size - 1] < value) {
+            ensureCapacity(size + 1);
+            values[size++] = value;
+            return true;
+        }
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index >= 0)
+            return false;
+        int insertion = -index - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(values, insertion, values, insertion + 1, size - insertion);
+        values[insertion] = value;
+        size++;
+        return true;
+    }
+
+    public boolean remove(long value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0)
+            return false;
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    public boolean contains(long value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    public long get(int index) {
+        if (index >= size)
+            throw new IndexOutOfBoundsException(index);
+        return values[index];
+    }
+
+    public void forEachLong(LongConsumer action) {
+        for (int i = 0; i < size; i++)
+            action.accept(values[i]);
+    }
+
+    public long[] toLongArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    public void trimToSize() {
+        if (values.length != size)
+            values = size == 0 ? EMPTY : Arrays.copyOf(values, size);
+    }
+
+    @Override
+    public boolean add(Long value) {
+        return add(value.longValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Long && remove(((Long) o).longValue());
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Long && contains(((Long) o).longValue());
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return new Iterator<>() {
+            private int cursor;
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public Long next() {
+                if (cursor >= size)
+                    throw new NoSuchElementException();
+                last = cursor;
+                return values[cursor++];
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0)
+                    throw new IllegalStateException();
+                LongSet.this.remove(values[last]);
+                cursor = last;
+                last = -1;
+            }
+        };
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > values.length)
+            values = Arrays.copyOf(values, Math.max(capacity, Math.max(4, values.length + (values.length >> 1))));
+    }
+
+    public static class Serializer extends StdSerializer<LongSet> {
+        public Serializer() {
+            super(LongSet.class);
+        }
+
+        @Override
+        public void serialize(LongSet set, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeArray(set.values, 0, set.size);
+        }
+    }
+}
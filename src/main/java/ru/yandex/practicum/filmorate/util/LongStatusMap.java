@@ -0,0 +1,172 @@
+package ru.yandex.practicum.filmorate.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ru.yandex.practicum.filmorate.model.Status;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+@JsonSerialize(using = LongStatusMap.Serializer.class)
+public class LongStatusMap extends AbstractMap<Long, Status> {
+    private static final Status[] STATUSES = Status.values();
+    private static final long[] EMPTY_KEYS = new long[0];
+    private static final byte[] EMPTY_STATUSES = new byte[0];
+
+    private long[] keys = EMPTY_KEYS;
+    private byte[] statuses = EMPTY_STATUSES;
+    private int size;
+
+    public Status put(long key, Status status) {
+        if (size == 0 || keys[size - 1] < key) {
+            ensureCapacity(size + 1);
+            keys[size] = key;
+            statuses[size++] = (byte) status.ordinal();
+            return null;
+        }
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            Status previous = STATUSES[statuses[index]];
+            statuses[index] = (byte) status.ordinal();
+            return previous;
+        }
+        int insertion = -index - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(keys, insertion, keys, insertion + 1, size - insertion);
+        System.arraycopy(statuses, insertion, statuses, insertion + 1, size - insertion);
+        keys[insertion] = key;
+        statuses[insertion] = (byte) status.ordinal();
+        size++;
+        return null;
+    }
+
+    public Status get(long key) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        return index < 0 ? null : STATUSES[statuses[index]];
+    }
+
+    public boolean containsKey(long key) {
+        return Arrays.binarySearch(keys, 0, size, key) >= 0;
+    }
+
+    public Status remove(long key) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index < 0)
+            return null;
+        Status previous = STATUSES[statuses[index]];
+        removeAt(index);
+        return previous;
+    }
+
+    public long[] keysToLongArray() {
+        return Arrays.copyOf(keys, size);
+    }
+
+    @Override
+    public Status put(Long key, Status status) {
+        return put(key.longValue(), status);
+    }
+
+    @Override
+    public Status get(Object key) {
+        return key instanceof Long ? get(((Long) key).longValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Long && containsKey(((Long) key).longValue());
+    }
+
+    @Override
+    public Status remove(Object key) {
+        return key instanceof Long ? remove(((Long) key).longValue()) : null;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<Long, Status>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Long, Status>> iterator() {
+                return new Iterator<>() {
+                    private int cursor;
+                    private int last = -1;
+
+                    @Override
+                    public boolean hasNext() {
+                        return cursor < size;
+                    }
+
+                    @Override
+                    public Entry<Long, Status> next() {
+                        if (cursor >= size)
+                            throw new NoSuchElementException();
+                        last = cursor;
+                        return new SimpleImmutableEntry<>(keys[cursor], STATUSES[statuses[cursor++]]);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last < 0)
+                            throw new IllegalStateException();
+                        removeAt(last);
+                        cursor = last;
+                        last = -1;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(statuses, index + 1, statuses, index, size - index - 1);
+        size--;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int newCapacity = Math.max(capacity, Math.max(4, keys.length + (keys.length >> 1)));
+            keys = Arrays.copyOf(keys, newCapacity);
+            statuses = Arrays.copyOf(statuses, newCapacity);
+        }
+    }
+
+    public static class Serializer extends StdSerializer<LongStatusMap> {
+        public Serializer() {
+            super(LongStatusMap.class);
+        }
+
+        @Override
+        public void serialize(LongStatusMap map, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(map, map.size);
+            for (int i = 0; i < map.size; i++) {
+                generator.writeFieldName(Long.toString(map.keys[i]));
+                generator.writeString(STATUSES[map.statuses[i]].name());
+            }
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Разбор текста на поисковые слова. Общий для поискового индекса и поиска в базе данных, поэтому оба находят
+ * одни и те же фильмы.
+ * <p>
+ * Слово - последовательность букв и цифр в нижнем регистре с заменой ё на е. От слова отбрасывается самое длинное
+ * падежное или родовое окончание русских существительных и прилагательных, если после этого остаётся не меньше
+ * трёх букв: «Титанике» и «титаник» дают одно слово «титаник», «крушение» и «крушении» - «крушен».
+ * Основа всегда начало исходного слова, поэтому её можно искать в базе данных шаблоном LIKE.
+ */
+public final class SearchTerms {
+    private static final int MIN_STEM_LENGTH = 3;
+    private static final String[] ENDINGS = {
+            "иями", "ями", "ами", "ыми", "ими", "ого", "его", "ому", "ему", "ией", "ием", "иям", "иях",
+            "ая", "яя", "ое", "ее", "ые", "ие", "ый", "ий", "ой", "ую", "юю", "ых", "их", "ым", "им", "ом", "ем",
+            "ам", "ям", "ах", "ях", "ов", "ев", "ей", "ию", "ия", "ии", "ью",
+            "а", "я", "о", "е", "ы", "и", "у", "ю", "ь", "й"
+    };
+
+    private SearchTerms() {
+    }
+
+    /**
+     * Разбивает текст на основы слов. Отдельные буквы (предлоги и союзы) пропускаются.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null)
+            return tokens;
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                c = Character.toLowerCase(c);
+                token.append(c == 'ё' ? 'е' : c);
+            } else if (token.length() > 0) {
+                if (token.length() > 1 || Character.isDigit(token.charAt(0)))
+                    tokens.add(stem(token.toString()));
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Возвращает основы слов запроса без повторов в порядке первого вхождения.
+     */
+    public static List<String> terms(String query) {
+        return new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+    }
+
+    /**
+     * Проверяет, что в текстах встречаются все основы terms.
+     */
+    public static boolean containsAll(List<String> terms, String... texts) {
+        Set<String> tokens = new HashSet<>();
+        for (String text : texts)
+            tokens.addAll(tokenize(text));
+        return tokens.containsAll(terms);
+    }
+
+    /**
+     * Отбрасывает окончание от слова в нижнем регистре.
+     */
+    public static String stem(String word) {
+        for (String ending : ENDINGS) {
+            if (word.length() - ending.length() >= MIN_STEM_LENGTH && word.endsWith(ending))
+                return word.substring(0, word.length() - ending.length());
+        }
+        return word;
+    }
+}
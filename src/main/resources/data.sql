@@ -1,16 +1,16 @@
 
-INSERT INTO STATUS (STATUS_ID, NAME) VALUES(1, 'UNCONFIRMED');
-INSERT INTO STATUS (STATUS_ID, NAME) VALUES(2, 'CONFIRMED');
+MERGE INTO STATUS (STATUS_ID, NAME) VALUES(1, 'UNCONFIRMED');
+MERGE INTO STATUS (STATUS_ID, NAME) VALUES(2, 'CONFIRMED');
 
-INSERT INTO RATINGS (RATING_ID, NAME) VALUES (1, 'G');
-INSERT INTO RATINGS (RATING_ID, NAME) VALUES (2, 'PG');
-INSERT INTO RATINGS (RATING_ID, NAME) VALUES (3, 'PG13');
-INSERT INTO RATINGS (RATING_ID, NAME) VALUES (4, 'R');
-INSERT INTO RATINGS (RATING_ID, NAME) VALUES (5, 'NC17');
+MERGE INTO RATINGS (RATING_ID, NAME) VALUES (1, 'G');
+MERGE INTO RATINGS (RATING_ID, NAME) VALUES (2, 'PG');
+MERGE INTO RATINGS (RATING_ID, NAME) VALUES (3, 'PG13');
+MERGE INTO RATINGS (RATING_ID, NAME) VALUES (4, 'R');
+MERGE INTO RATINGS (RATING_ID, NAME) VALUES (5, 'NC17');
 
-INSERT INTO GENRES (GENRE_ID, NAME) VALUES (1, 'COMEDY');
-INSERT INTO GENRES (GENRE_ID, NAME) VALUES (2, 'DRAMA');
-INSERT INTO GENRES (GENRE_ID, NAME) VALUES (3, 'CARTOON');
-INSERT INTO GENRES (GENRE_ID, NAME) VALUES (4, 'THRILLER');
-INSERT INTO GENRES (GENRE_ID, NAME) VALUES (5, 'DOCUMENTARY');
-INSERT INTO GENRES (GENRE_ID, NAME) VALUES (6, 'ACTION');
+MERGE INTO GENRES (GENRE_ID, NAME) VALUES (1, 'COMEDY');
+MERGE INTO GENRES (GENRE_ID, NAME) VALUES (2, 'DRAMA');
+MERGE INTO GENRES (GENRE_ID, NAME) VALUES (3, 'CARTOON');
+MERGE INTO GENRES (GENRE_ID, NAME) VALUES (4, 'THRILLER');
+MERGE INTO GENRES (GENRE_ID, NAME) VALUES (5, 'DOCUMENTARY');
+MERGE INTO GENRES (GENRE_ID, NAME) VALUES (6, 'ACTION');
@@ -0,0 +1 @@
+DROP TABLE IF EXISTS status, users, friends, ratings, films, genres,film_genre,film_likes CASCADE;
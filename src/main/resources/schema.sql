@@ -1,5 +1,3 @@
-DROP TABLE IF EXISTS status, users, friends, ratings, films, genres,film_genre,film_likes CASCADE;
-
 CREATE TABLE IF NOT EXISTS status
 (
     status_id TINYINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -38,6 +36,7 @@ CREATE TABLE IF NOT EXISTS films
     release_date DATE NOT NULL,
     duration BIGINT NOT NULL,
     rating_id TINYINT REFERENCES ratings(rating_id),
+    like_count INT DEFAULT 0 NOT NULL,
     CONSTRAINT duration_positive CHECK (duration >= 0)
 );
 
@@ -60,3 +59,15 @@ CREATE TABLE IF NOT EXISTS film_likes
     user_id BIGINT REFERENCES users(user_id),
     PRIMARY KEY(film_id, user_id)
 );
+
+CREATE INDEX IF NOT EXISTS film_likes_user_id_idx ON film_likes (user_id, film_id);
+
+CREATE INDEX IF NOT EXISTS friends_friend_id_idx ON friends (friend_id, status_id, user_id);
+
+ALTER TABLE films ADD COLUMN IF NOT EXISTS like_count INT;
+UPDATE films f SET like_count = (SELECT COUNT(*) FROM film_likes fl WHERE fl.film_id = f.film_id)
+WHERE like_count IS NULL;
+ALTER TABLE films ALTER COLUMN like_count SET DEFAULT 0;
+ALTER TABLE films ALTER COLUMN like_count SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS films_like_count_idx ON films (like_count DESC, film_id);
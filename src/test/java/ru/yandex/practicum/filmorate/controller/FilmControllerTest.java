@@ -1,34 +1,63 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.yandex.practicum.filmorate.exceptions.FilmNotFoundException;
 import ru.yandex.practicum.filmorate.exceptions.ValidationException;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.ImportResult;
 import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.service.film.FilmSearchIndex;
+import ru.yandex.practicum.filmorate.storage.film.FilmDbStorage;
+import ru.yandex.practicum.filmorate.util.SearchTerms;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
 import javax.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureTestDatabase
+@AutoConfigureMockMvc
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
-@DirtiesContext(classMode = ClassMode.BEFORE_EACH_TEST_METHOD)
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD)
 class FilmControllerTest {
     private Validator validator;
     private final FilmController controller;
+    private final FilmSearchIndex filmSearchIndex;
+    private final FilmDbStorage filmDbStorage;
+    private final MockMvc mockMvc;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
 
     @BeforeEach
     public void beforeEach() {
@@ -189,6 +218,29 @@ class FilmControllerTest {
         Assertions.assertEquals(updatedFilm, controller.getFilms().get(0), "Фильмы не совпадают.");
     }
 
+    @Test
+    void updateFilmWithPartlyChangedGenres() {
+        Film film = Film.builder().name("Титаник").description("О крушении")
+                .releaseDate(LocalDate.of(1990, 1, 1)).duration(300L).mpa(Mpa.G)
+                .likes(Set.of()).genres(new LinkedHashSet<>() {{
+                    add(Genre.CARTOON);
+                    add(Genre.ACTION);
+                }}).build();
+        Film addedFilm = controller.addFilm(film);
+
+        Film updatedFilm = film.toBuilder().id(addedFilm.getId()).genres(new LinkedHashSet<>() {{
+            add(Genre.DRAMA);
+            add(Genre.CARTOON);
+        }}).build();
+        controller.updateFilm(updatedFilm);
+        Assertions.assertEquals(updatedFilm.getGenres(), controller.getFilm(addedFilm.getId()).getGenres(),
+                "Жанры фильмов не совпадают.");
+
+        controller.updateFilm(updatedFilm.toBuilder().genres(null).build());
+        Assertions.assertTrue(controller.getFilm(addedFilm.getId()).getGenres().isEmpty(),
+                "Жанры фильма не удалены.");
+    }
+
     @Test
     void updateFilmWithBlankName() {
         Film film = Film.builder().name("Титаник").description("О крушении")
@@ -304,4 +356,141 @@ class FilmControllerTest {
         Set<ConstraintViolation<Film>> violations5 = validator.validate(updatedFilmWithoutDuration);
         Assertions.assertFalse(violations5.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void addFilmsBatch() throws IOException {
+        String body = "[{\"name\":\"Титаник\",\"description\":\"О крушении\",\"releaseDate\":\"1990-01-01\"," +
+                "\"duration\":300,\"mpa\":{\"id\":1},\"genres\":[{\"id\":3}]}," +
+                "{\"name\":\" \",\"description\":\"О крушении\",\"releaseDate\":\"1990-01-01\"," +
+                "\"duration\":300,\"mpa\":{\"id\":1}}," +
+                "{\"name\":\"Лайнер\",\"description\":\"О восстановлении\",\"releaseDate\":\"1800-01-01\"," +
+                "\"duration\":400,\"mpa\":{\"id\":2}}]";
+
+        List<ImportResult> results = controller.addFilms(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertEquals(3, results.size(), "Количество результатов не совпадает.");
+        Assertions.assertNotNull(results.get(0).getId(), "Фильм не добавлен.");
+        Assertions.assertNotNull(results.get(1).getError(), "Фильм с пустым названием добавлен.");
+        Assertions.assertEquals("Дата релиза не должна быть раньше 28 декабря 1895 года. Введено: 1800-01-01",
+                results.get(2).getError(), "Сообщения об ошибке не совпадают.");
+        Assertions.assertEquals(1, controller.getFilms().size(), "Количество фильмов не совпадает.");
+        Assertions.assertEquals(Set.of(Genre.CARTOON), controller.getFilm(results.get(0).getId()).getGenres(),
+                "Жанры фильмов не совпадают.");
+    }
+
+    @Test
+    void searchFilms() {
+        Film film = Film.builder().name("Ёлки").description("Новогодняя комедия о чудесах")
+                .releaseDate(LocalDate.of(2010, 12, 16)).duration(90L).mpa(Mpa.G)
+                .genres(new LinkedHashSet<>()).build();
+        Film firstFilm = controller.addFilm(film);
+        Film secondFilm = controller.addFilm(film.toBuilder().name("Ёлки 2").description("Снова в Новый год").build());
+        Film thirdFilm = controller.addFilm(film.toBuilder().name("Титаник").description("О крушении").build());
+        filmSearchIndex.rebuild();
+
+        Assertions.assertEquals(List.of(firstFilm.getId(), secondFilm.getId()), searchFilms("елки"),
+                "Результаты поиска не совпадают.");
+        Assertions.assertEquals(List.of(secondFilm.getId()), searchFilms("ЁЛКИ, 2"), "Результаты поиска не совпадают.");
+        Assertions.assertTrue(searchFilms("Ёлки Титаник").isEmpty(), "Результаты поиска должны быть пустыми.");
+
+        controller.updateFilm(thirdFilm.toBuilder().name("Ёлки 3").description("Новогодняя история").build());
+        Film fourthFilm = controller.addFilm(film.toBuilder().name("Крушение").description("Снова о Титанике").build());
+
+        Assertions.assertEquals(List.of(firstFilm.getId(), thirdFilm.getId()), searchFilms("новогодней"),
+                "Результаты поиска не совпадают.");
+        Assertions.assertEquals(List.of(fourthFilm.getId()), searchFilms("титаник"),
+                "Другая форма слова не найдена.");
+        Assertions.assertEquals(List.of(fourthFilm.getId()), searchFilms("о крушении"),
+                "Результаты поиска не совпадают.");
+        Assertions.assertTrue(searchFilms("тит").isEmpty(), "Найдено совпадение с частью слова.");
+        Assertions.assertThrows(ValidationException.class, () -> controller.searchFilms("ёлки", 0));
+    }
+
+    @Test
+    void searchFilmsAfterRollback() {
+        Film film = controller.addFilm(Film.builder().name("Ёлки").description("Новогодняя комедия")
+                .releaseDate(LocalDate.of(2010, 12, 16)).duration(90L).mpa(Mpa.G)
+                .genres(new LinkedHashSet<>()).build());
+        filmSearchIndex.rebuild();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            controller.addFilm(film.toBuilder().id(0).name("Титаник").description("О крушении").build());
+            controller.updateFilm(film.toBuilder().name("Брат").build());
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertTrue(searchFilms("титаник").isEmpty(), "Найден фильм из отменённой транзакции.");
+        Assertions.assertTrue(searchFilms("брат").isEmpty(), "Найдено название из отменённой транзакции.");
+        Assertions.assertEquals(List.of(film.getId()), searchFilms("елки"), "Фильм не найден после отката.");
+    }
+
+    @Test
+    void getFilmsPage() {
+        List<Long> ids = addFilms(5);
+
+        Assertions.assertEquals(ids.subList(0, 2), getIds(controller.getFilms(0, 2)), "Первая страница не совпадает.");
+        Assertions.assertEquals(ids.subList(2, 4), getIds(controller.getFilms(ids.get(1), 2)),
+                "Вторая страница не совпадает.");
+        Assertions.assertEquals(ids.subList(4, 5), getIds(controller.getFilms(ids.get(3), 2)),
+                "Последняя страница не совпадает.");
+        Assertions.assertTrue(controller.getFilms(ids.get(4), 2).isEmpty(), "Страница после последней не пуста.");
+        Assertions.assertEquals(ids, getIds(controller.getFilms(0, 1000)),
+                "Страница наибольшего размера не совпадает.");
+        Assertions.assertThrows(ValidationException.class, () -> controller.getFilms(0, 0));
+        Assertions.assertThrows(ValidationException.class, () -> controller.getFilms(0, 1001));
+    }
+
+    @Test
+    void getFilmsPageWithoutLimit() throws Exception {
+        List<Long> ids = addFilms(3);
+
+        mockMvc.perform(get("/films").param("after", ids.get(0).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(ids.get(1)));
+        mockMvc.perform(get("/films"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+        mockMvc.perform(get("/films").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamFilms() throws Exception {
+        List<Long> ids = addFilms(3);
+
+        MvcResult result = mockMvc.perform(get("/films/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<Long> streamedIds = new ArrayList<>();
+        for (String line : body.split("\n"))
+            streamedIds.add(objectMapper.readValue(line, Film.class).getId());
+        Assertions.assertEquals(ids, streamedIds, "Выгруженные фильмы не совпадают.");
+    }
+
+    private List<Long> addFilms(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= count; i++)
+            ids.add(controller.addFilm(Film.builder().name("Фильм " + i).description("Описание " + i)
+                    .releaseDate(LocalDate.of(2000, 1, i)).duration(90L).mpa(Mpa.G)
+                    .genres(new LinkedHashSet<>()).build()).getId());
+        return ids;
+    }
+
+    private List<Long> searchFilms(String query) {
+        List<Long> ids = getIds(controller.searchFilms(query, 10));
+        Assertions.assertEquals(Set.copyOf(ids), Set.copyOf(filmDbStorage.searchFilmsId(SearchTerms.terms(query), 10)),
+                "Поиск в базе данных нашёл другие фильмы, чем поисковый индекс.");
+        return ids;
+    }
+
+    private static List<Long> getIds(List<Film> films) {
+        return films.stream().map(Film::getId).collect(Collectors.toList());
+    }
+}
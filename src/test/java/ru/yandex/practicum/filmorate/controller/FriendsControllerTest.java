@@ -0,0 +1,136 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.yandex.practicum.filmorate.exceptions.UserNotFoundException;
+import ru.yandex.practicum.filmorate.model.Status;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class FriendsControllerTest {
+    private final FriendsController controller;
+    private final UserController userController;
+    private User ivan;
+    private User maria;
+    private User petr;
+    private User olga;
+
+    @BeforeEach
+    public void beforeEach() {
+        ivan = userController.addUser(User.builder().email("ivan@ya.ru").login("ivan").name("Иван")
+                .birthday(LocalDate.of(1990, 1, 1)).build());
+        maria = userController.addUser(User.builder().email("maria@ya.ru").login("maria").name("Мария")
+                .birthday(LocalDate.of(1991, 2, 2)).build());
+        petr = userController.addUser(User.builder().email("petr@ya.ru").login("petr").name("Пётр")
+                .birthday(LocalDate.of(1992, 3, 3)).build());
+        olga = userController.addUser(User.builder().email("olga@ya.ru").login("olga").name("Ольга")
+                .birthday(LocalDate.of(1993, 4, 4)).build());
+    }
+
+    @Test
+    void getFriends() {
+        controller.addFriend(ivan.getId(), olga.getId());
+        controller.addFriend(ivan.getId(), maria.getId());
+        controller.addFriend(maria.getId(), ivan.getId());
+
+        List<User> friends = controller.getFriends(ivan.getId());
+
+        Assertions.assertEquals(List.of(maria.getId(), olga.getId()),
+                friends.stream().map(User::getId).collect(Collectors.toList()), "Список друзей не совпадает.");
+        Assertions.assertEquals(Map.of(ivan.getId(), Status.CONFIRMED), friends.get(0).getFriends(),
+                "Друзья друга не совпадают.");
+    }
+
+    @Test
+    void getCommonFriends() {
+        controller.addFriend(ivan.getId(), petr.getId());
+        controller.addFriend(ivan.getId(), olga.getId());
+        controller.addFriend(maria.getId(), olga.getId());
+        controller.addFriend(maria.getId(), petr.getId());
+        controller.addFriend(maria.getId(), ivan.getId());
+
+        Assertions.assertEquals(List.of(petr.getId(), olga.getId()),
+                controller.getCommonFriends(ivan.getId(), maria.getId()).stream()
+                        .map(User::getId).collect(Collectors.toList()),
+                "Список общих друзей не совпадает.");
+        Assertions.assertTrue(controller.getCommonFriends(ivan.getId(), petr.getId()).isEmpty(),
+                "Список общих друзей должен быть пустым.");
+    }
+
+    @Test
+    void getIncomingRequestsAndDeleteUser() {
+        controller.addFriend(maria.getId(), ivan.getId());
+        controller.addFriend(olga.getId(), ivan.getId());
+        controller.addFriend(ivan.getId(), olga.getId());
+        controller.addFriend(petr.getId(), ivan.getId());
+
+        Assertions.assertEquals(List.of(maria.getId(), petr.getId()),
+                controller.getIncomingRequests(ivan.getId()).stream().map(User::getId).collect(Collectors.toList()),
+                "Список заявок в друзья не совпадает.");
+
+        userController.deleteUser(ivan.getId());
+
+        Assertions.assertTrue(controller.getFriends(olga.getId()).isEmpty(), "Список друзей должен быть пустым.");
+        Assertions.assertTrue(controller.getFriends(maria.getId()).isEmpty(), "Список друзей должен быть пустым.");
+    }
+
+    @Test
+    void getSuggestions() {
+        controller.addFriend(ivan.getId(), maria.getId());
+        controller.addFriend(ivan.getId(), petr.getId());
+        controller.addFriend(maria.getId(), olga.getId());
+        controller.addFriend(petr.getId(), olga.getId());
+        controller.addFriend(petr.getId(), ivan.getId());
+
+        Assertions.assertEquals(List.of(olga.getId()),
+                controller.getSuggestions(ivan.getId(), 10).stream().map(User::getId).collect(Collectors.toList()),
+                "Список возможных друзей не совпадает.");
+        Assertions.assertEquals(List.of(maria.getId()),
+                controller.getSuggestions(petr.getId(), 10).stream().map(User::getId).collect(Collectors.toList()),
+                "Список возможных друзей не совпадает.");
+
+        controller.addFriend(ivan.getId(), olga.getId());
+
+        Assertions.assertTrue(controller.getSuggestions(ivan.getId(), 10).isEmpty(),
+                "Список возможных друзей должен быть пустым.");
+        Assertions.assertThrows(UserNotFoundException.class, () -> controller.getSuggestions(-1L, 10));
+    }
+
+    @Test
+    void getPath() {
+        controller.addFriend(ivan.getId(), maria.getId());
+        controller.addFriend(maria.getId(), petr.getId());
+        controller.addFriend(petr.getId(), maria.getId());
+        controller.addFriend(petr.getId(), olga.getId());
+
+        Assertions.assertEquals(List.of(ivan.getId(), maria.getId(), petr.getId(), olga.getId()),
+                controller.getPath(ivan.getId(), olga.getId(), false).stream()
+                        .map(User::getId).collect(Collectors.toList()),
+                "Цепочка друзей не совпадает.");
+        Assertions.assertEquals(List.of(maria.getId(), petr.getId()),
+                controller.getPath(maria.getId(), petr.getId(), true).stream()
+                        .map(User::getId).collect(Collectors.toList()),
+                "Цепочка подтверждённых друзей не совпадает.");
+        Assertions.assertTrue(controller.getPath(ivan.getId(), olga.getId(), true).isEmpty(),
+                "Цепочка подтверждённых друзей должна быть пустой.");
+        Assertions.assertTrue(controller.getPath(olga.getId(), ivan.getId(), false).isEmpty(),
+                "Цепочка друзей должна быть пустой.");
+        Assertions.assertEquals(List.of(ivan.getId()), controller.getPath(ivan.getId(), ivan.getId(), false).stream()
+                .map(User::getId).collect(Collectors.toList()), "Цепочка друзей не совпадает.");
+        Assertions.assertThrows(UserNotFoundException.class, () -> controller.getPath(ivan.getId(), -1L, false));
+    }
+}
@@ -0,0 +1,74 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yandex.practicum.filmorate.model.Status;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.user.FriendsDbStorage;
+import ru.yandex.practicum.filmorate.storage.user.FriendsGraphStorage;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@ActiveProfiles("friends-graph")
+class FriendsGraphControllerTest extends FriendsControllerTest {
+    private final FriendsController controller;
+    private final UserController userController;
+    private final FriendsGraphStorage friendsGraphStorage;
+    private final FriendsDbStorage friendsDbStorage;
+    private final PlatformTransactionManager transactionManager;
+
+    @Autowired
+    FriendsGraphControllerTest(FriendsController controller, UserController userController,
+                               FriendsGraphStorage friendsGraphStorage, FriendsDbStorage friendsDbStorage,
+                               PlatformTransactionManager transactionManager) {
+        super(controller, userController);
+        this.controller = controller;
+        this.userController = userController;
+        this.friendsGraphStorage = friendsGraphStorage;
+        this.friendsDbStorage = friendsDbStorage;
+        this.transactionManager = transactionManager;
+    }
+
+    @Test
+    void compactAndReload() {
+        User anna = userController.addUser(User.builder().email("anna@ya.ru").login("anna").name("Анна")
+                .birthday(LocalDate.of(1994, 5, 5)).build());
+        for (User user : userController.getUsers()) {
+            if (user.getId() != anna.getId())
+                controller.addFriend(anna.getId(), user.getId());
+        }
+        controller.addFriend(userController.getUsers().get(0).getId(), anna.getId());
+        controller.deleteFriend(anna.getId(), userController.getUsers().get(1).getId());
+
+        friendsGraphStorage.compact();
+        Assertions.assertEquals(friendsDbStorage.loadAllFriends(), friendsGraphStorage.loadAllFriends(),
+                "Граф друзей после сжатия не совпадает с базой.");
+
+        friendsGraphStorage.load();
+        Assertions.assertEquals(friendsDbStorage.loadAllFriends(), friendsGraphStorage.loadAllFriends(),
+                "Граф друзей после загрузки не совпадает с базой.");
+    }
+
+    @Test
+    void addFriendAfterRollback() {
+        List<User> users = userController.getUsers();
+        controller.addFriend(users.get(0).getId(), users.get(1).getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            controller.addFriend(users.get(1).getId(), users.get(0).getId());
+            controller.deleteFriend(users.get(0).getId(), users.get(1).getId());
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertEquals(friendsDbStorage.loadAllFriends(), friendsGraphStorage.loadAllFriends(),
+                "Граф друзей после отката не совпадает с базой.");
+        Assertions.assertEquals(Map.of(users.get(1).getId(), Status.UNCONFIRMED),
+                friendsGraphStorage.loadFriends(users.get(0).getId()), "Друзья пользователя не совпадают.");
+    }
+}
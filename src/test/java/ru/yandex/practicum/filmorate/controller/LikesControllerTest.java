@@ -0,0 +1,199 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yandex.practicum.filmorate.exceptions.FilmLikeAlreadyAddedException;
+import ru.yandex.practicum.filmorate.exceptions.FilmLikeNotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.FilmNotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.UserNotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.film.FilmLeaderboard;
+import ru.yandex.practicum.filmorate.service.film.FilmRecommender;
+import ru.yandex.practicum.filmorate.service.film.FilmService;
+import ru.yandex.practicum.filmorate.service.film.LikesCountRepairJob;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class LikesControllerTest {
+    private final LikesController controller;
+    private final FilmController filmController;
+    private final UserController userController;
+    private final LikesCountRepairJob likesCountRepairJob;
+    private final FilmRecommender filmRecommender;
+    private final FilmLeaderboard filmLeaderboard;
+    private final FilmService filmService;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private Film titanic;
+    private Film brother;
+    private Film trees;
+    private User firstUser;
+    private User secondUser;
+
+    @BeforeEach
+    public void beforeEach() {
+        titanic = filmController.addFilm(Film.builder().name("Титаник").description("О крушении")
+                .releaseDate(LocalDate.of(1997, 12, 19)).duration(194L).mpa(Mpa.PG13).build());
+        brother = filmController.addFilm(Film.builder().name("Брат").description("О Даниле Багрове")
+                .releaseDate(LocalDate.of(1997, 5, 17)).duration(100L).mpa(Mpa.R).build());
+        trees = filmController.addFilm(Film.builder().name("Ёлки").description("О Новом годе")
+                .releaseDate(LocalDate.of(2010, 12, 16)).duration(90L).mpa(Mpa.G).build());
+        firstUser = userController.addUser(User.builder().email("bigman@ya.ru").login("BigMan").name("Mannish")
+                .birthday(LocalDate.of(1994, 1, 1)).build());
+        secondUser = userController.addUser(User.builder().email("smallwoman@google.com").login("SmallWoman")
+                .name("Womanish").birthday(LocalDate.of(2004, 12, 12)).build());
+    }
+
+    @Test
+    void getPopularFilms() {
+        controller.addLike(brother.getId(), firstUser.getId());
+        controller.addLike(brother.getId(), secondUser.getId());
+        controller.addLike(trees.getId(), firstUser.getId());
+
+        List<Film> popularFilms = controller.getPopularFilms(10);
+
+        Assertions.assertEquals(List.of(brother.getId(), trees.getId(), titanic.getId()),
+                popularFilms.stream().map(Film::getId).collect(Collectors.toList()),
+                "Порядок популярных фильмов не совпадает.");
+        Assertions.assertEquals(Set.of(firstUser.getId(), secondUser.getId()), popularFilms.get(0).getLikes(),
+                "Лайки фильма не совпадают.");
+    }
+
+    @Test
+    void getPopularFilmsAfterDeleteLike() {
+        controller.addLike(brother.getId(), firstUser.getId());
+        controller.addLike(trees.getId(), firstUser.getId());
+        controller.addLike(trees.getId(), secondUser.getId());
+        controller.deleteLike(trees.getId(), firstUser.getId());
+        controller.deleteLike(trees.getId(), secondUser.getId());
+
+        Assertions.assertEquals(List.of(brother.getId(), titanic.getId()),
+                controller.getPopularFilms(2).stream().map(Film::getId).collect(Collectors.toList()),
+                "Порядок популярных фильмов не совпадает.");
+    }
+
+    @Test
+    void addLikeTwiceAndDeleteNonexistentLike() {
+        controller.addLike(titanic.getId(), firstUser.getId());
+
+        Assertions.assertThrows(FilmLikeAlreadyAddedException.class,
+                () -> controller.addLike(titanic.getId(), firstUser.getId()));
+        Assertions.assertThrows(FilmLikeNotFoundException.class,
+                () -> controller.deleteLike(titanic.getId(), secondUser.getId()));
+        Assertions.assertEquals(List.of(titanic.getId()),
+                controller.getPopularFilms(1).stream().map(Film::getId).collect(Collectors.toList()),
+                "Порядок популярных фильмов не совпадает.");
+    }
+
+    @Test
+    void addLikeWithNonexistentFilmOrUser() {
+        Assertions.assertThrows(FilmNotFoundException.class, () -> controller.addLike(-1L, -1L));
+        Assertions.assertThrows(FilmNotFoundException.class, () -> controller.addLike(-1L, firstUser.getId()));
+        Assertions.assertThrows(UserNotFoundException.class, () -> controller.addLike(titanic.getId(), -1L));
+        Assertions.assertThrows(UserNotFoundException.class, () -> controller.deleteLike(titanic.getId(), -1L));
+    }
+
+    @Test
+    void getLikedFilmsAndDeleteUser() {
+        controller.addLike(trees.getId(), secondUser.getId());
+        controller.addLike(brother.getId(), secondUser.getId());
+        controller.addLike(trees.getId(), firstUser.getId());
+
+        Assertions.assertEquals(List.of(brother.getId(), trees.getId()),
+                userController.getLikedFilms(secondUser.getId()).stream().map(Film::getId)
+                        .collect(Collectors.toList()), "Список понравившихся фильмов не совпадает.");
+
+        userController.deleteUser(secondUser.getId());
+
+        Assertions.assertEquals(List.of(trees.getId(), titanic.getId(), brother.getId()),
+                controller.getPopularFilms(10).stream().map(Film::getId).collect(Collectors.toList()),
+                "Порядок популярных фильмов не совпадает.");
+        Assertions.assertEquals(Set.of(firstUser.getId()), filmController.getFilm(trees.getId()).getLikes(),
+                "Лайки фильма не совпадают.");
+    }
+
+    @Test
+    void getRecommendations() {
+        controller.addLike(titanic.getId(), firstUser.getId());
+        controller.addLike(titanic.getId(), secondUser.getId());
+        controller.addLike(brother.getId(), secondUser.getId());
+        filmRecommender.rebuild();
+
+        Assertions.assertEquals(List.of(brother.getId(), trees.getId()),
+                userController.getRecommendations(firstUser.getId(), 10).stream().map(Film::getId)
+                        .collect(Collectors.toList()), "Рекомендации не совпадают.");
+
+        controller.addLike(trees.getId(), secondUser.getId());
+        controller.addLike(brother.getId(), firstUser.getId());
+        filmRecommender.refreshNeighbours();
+
+        Assertions.assertEquals(List.of(trees.getId()),
+                userController.getRecommendations(firstUser.getId(), 10).stream().map(Film::getId)
+                        .collect(Collectors.toList()), "Рекомендации после новых лайков не совпадают.");
+        Assertions.assertTrue(userController.getRecommendations(secondUser.getId(), 10).isEmpty(),
+                "Пользователю рекомендованы фильмы, которые ему уже понравились.");
+        Assertions.assertThrows(UserNotFoundException.class, () -> userController.getRecommendations(-1L, 10));
+    }
+
+    @Test
+    void getPopularFilmsAfterRollback() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            filmService.addFilm(titanic.toBuilder().id(0).name("Титаник 2").build());
+            filmService.addFilms(List.of(brother.toBuilder().id(0).name("Брат 2").build()));
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertEquals(Set.of(titanic.getId(), brother.getId(), trees.getId()),
+                Set.copyOf(filmLeaderboard.getTop(10)),
+                "В рейтинге остались фильмы из отменённой транзакции.");
+    }
+
+    @Test
+    void repairLikesCount() {
+        controller.addLike(trees.getId(), firstUser.getId());
+        jdbcTemplate.update("UPDATE films SET like_count = 5 WHERE film_id = ?", titanic.getId());
+        jdbcTemplate.update("UPDATE films SET like_count = 0 WHERE film_id = ?", trees.getId());
+
+        likesCountRepairJob.repair();
+
+        Assertions.assertEquals(List.of(trees.getId(), titanic.getId(), brother.getId()),
+                controller.getPopularFilms(10).stream().map(Film::getId).collect(Collectors.toList()),
+                "Порядок популярных фильмов не совпадает.");
+        Assertions.assertEquals(List.of(1, 0, 0), jdbcTemplate.queryForList(
+                        "SELECT like_count FROM films ORDER BY like_count DESC, film_id", Integer.class),
+                "Счётчики лайков не исправлены.");
+    }
+
+    @Test
+    void repairLikesCountKeepsOtherFilms() {
+        filmLeaderboard.addLike(titanic.getId());
+        filmLeaderboard.addLike(titanic.getId());
+        filmLeaderboard.addLike(brother.getId());
+        jdbcTemplate.update("UPDATE films SET like_count = 5 WHERE film_id = ?", titanic.getId());
+
+        likesCountRepairJob.repair();
+
+        int[] likesCount = new int[2];
+        filmLeaderboard.getLikesCount(new long[]{titanic.getId(), brother.getId()}, 2, likesCount);
+        Assertions.assertArrayEquals(new int[]{0, 1}, likesCount,
+                "Исправлены лайки фильма без расхождения со счётчиком в базе данных.");
+    }
+}
@@ -0,0 +1,85 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.yandex.practicum.filmorate.exceptions.FilmLikeAlreadyAddedException;
+import ru.yandex.practicum.filmorate.exceptions.FilmLikeNotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.FilmNotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.UserNotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@SpringBootTest(properties = "filmorate.fan-out.enabled=true")
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class LikesFanOutControllerTest {
+    private final LikesController controller;
+    private final FilmController filmController;
+    private final UserController userController;
+    private final FriendsController friendsController;
+    private Film titanic;
+    private Film brother;
+    private User firstUser;
+    private User secondUser;
+
+    @BeforeEach
+    public void beforeEach() {
+        titanic = filmController.addFilm(Film.builder().name("Титаник").description("О крушении")
+                .releaseDate(LocalDate.of(1997, 12, 19)).duration(194L).mpa(Mpa.PG13).build());
+        brother = filmController.addFilm(Film.builder().name("Брат").description("О Даниле Багрове")
+                .releaseDate(LocalDate.of(1997, 5, 17)).duration(100L).mpa(Mpa.R).build());
+        firstUser = userController.addUser(User.builder().email("bigman@ya.ru").login("BigMan").name("Mannish")
+                .birthday(LocalDate.of(1994, 1, 1)).build());
+        secondUser = userController.addUser(User.builder().email("smallwoman@google.com").login("SmallWoman")
+                .name("Womanish").birthday(LocalDate.of(2004, 12, 12)).build());
+    }
+
+    @Test
+    void addAndDeleteLike() {
+        controller.addLike(brother.getId(), firstUser.getId());
+        controller.addLike(brother.getId(), secondUser.getId());
+
+        Assertions.assertThrows(FilmLikeAlreadyAddedException.class,
+                () -> controller.addLike(brother.getId(), firstUser.getId()));
+        Assertions.assertEquals(List.of(brother.getId(), titanic.getId()),
+                controller.getPopularFilms(10).stream().map(Film::getId).collect(Collectors.toList()),
+                "Порядок популярных фильмов не совпадает.");
+
+        controller.deleteLike(brother.getId(), firstUser.getId());
+
+        Assertions.assertThrows(FilmLikeNotFoundException.class,
+                () -> controller.deleteLike(brother.getId(), firstUser.getId()));
+        Assertions.assertEquals(Set.of(secondUser.getId()), filmController.getFilm(brother.getId()).getLikes(),
+                "Лайки фильма не совпадают.");
+    }
+
+    @Test
+    void addLikeWithNonexistentFilmOrUser() {
+        Assertions.assertThrows(FilmNotFoundException.class, () -> controller.addLike(-1L, -1L));
+        Assertions.assertThrows(FilmNotFoundException.class, () -> controller.addLike(-1L, firstUser.getId()));
+        Assertions.assertThrows(UserNotFoundException.class, () -> controller.addLike(titanic.getId(), -1L));
+        Assertions.assertThrows(UserNotFoundException.class, () -> controller.deleteLike(titanic.getId(), -1L));
+    }
+
+    @Test
+    void getUserWithFriends() {
+        friendsController.addFriend(firstUser.getId(), secondUser.getId());
+
+        Assertions.assertEquals(Set.of(secondUser.getId()), userController.getUser(firstUser.getId()).getFriends()
+                .keySet(), "Друзья пользователя не совпадают.");
+        Assertions.assertThrows(UserNotFoundException.class, () -> userController.getUser(-1L));
+    }
+}
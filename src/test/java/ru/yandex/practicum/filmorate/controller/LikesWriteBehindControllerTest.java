@@ -0,0 +1,87 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.yandex.practicum.filmorate.exceptions.FilmLikeAlreadyAddedException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.film.FilmLeaderboard;
+import ru.yandex.practicum.filmorate.service.film.LikesWriteBehindQueue;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+@SpringBootTest(properties = {
+        "filmorate.likes.write-behind.enabled=true",
+        "filmorate.likes.write-behind.flush-interval-ms=60000"
+})
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class LikesWriteBehindControllerTest {
+    private final LikesController controller;
+    private final FilmController filmController;
+    private final UserController userController;
+    private final LikesWriteBehindQueue likesWriteBehindQueue;
+    private final FilmLeaderboard filmLeaderboard;
+    private Film titanic;
+    private Film brother;
+    private User firstUser;
+    private User secondUser;
+
+    @BeforeEach
+    public void beforeEach() {
+        titanic = filmController.addFilm(Film.builder().name("Титаник").description("О крушении")
+                .releaseDate(LocalDate.of(1997, 12, 19)).duration(194L).mpa(Mpa.PG13).build());
+        brother = filmController.addFilm(Film.builder().name("Брат").description("О Даниле Багрове")
+                .releaseDate(LocalDate.of(1997, 5, 17)).duration(100L).mpa(Mpa.R).build());
+        firstUser = userController.addUser(User.builder().email("bigman@ya.ru").login("BigMan").name("Mannish")
+                .birthday(LocalDate.of(1994, 1, 1)).build());
+        secondUser = userController.addUser(User.builder().email("smallwoman@google.com").login("SmallWoman")
+                .name("Womanish").birthday(LocalDate.of(2004, 12, 12)).build());
+    }
+
+    @Test
+    void addPendingLikeTwice() {
+        controller.addLike(titanic.getId(), firstUser.getId());
+
+        Assertions.assertThrows(FilmLikeAlreadyAddedException.class,
+                () -> controller.addLike(titanic.getId(), firstUser.getId()));
+        Assertions.assertArrayEquals(new int[]{1}, getLikesCount(titanic), "Число лайков не совпадает.");
+    }
+
+    @Test
+    void deleteUserWithPendingLikes() {
+        controller.addLike(titanic.getId(), secondUser.getId());
+        likesWriteBehindQueue.flush();
+        controller.deleteLike(titanic.getId(), secondUser.getId());
+        controller.addLike(brother.getId(), secondUser.getId());
+        controller.addLike(titanic.getId(), firstUser.getId());
+        controller.addLike(brother.getId(), firstUser.getId());
+
+        userController.deleteUser(secondUser.getId());
+        likesWriteBehindQueue.flush();
+
+        Assertions.assertArrayEquals(new int[]{1, 1}, getLikesCount(titanic, brother), "Число лайков не совпадает.");
+        Assertions.assertEquals(Set.of(firstUser.getId()), filmController.getFilm(titanic.getId()).getLikes(),
+                "Лайки фильма не совпадают.");
+        Assertions.assertEquals(Set.of(firstUser.getId()), filmController.getFilm(brother.getId()).getLikes(),
+                "Лайки фильма не совпадают.");
+    }
+
+    private int[] getLikesCount(Film... films) {
+        long[] filmIds = new long[films.length];
+        for (int i = 0; i < films.length; i++)
+            filmIds[i] = films[i].getId();
+        int[] likesCount = new int[films.length];
+        filmLeaderboard.getLikesCount(filmIds, films.length, likesCount);
+        return likesCount;
+    }
+}
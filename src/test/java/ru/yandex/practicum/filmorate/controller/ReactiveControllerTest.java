@@ -0,0 +1,146 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.yandex.practicum.filmorate.exceptions.FilmLikeAlreadyAddedException;
+import ru.yandex.practicum.filmorate.exceptions.FilmLikeNotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.FilmNotFoundException;
+import ru.yandex.practicum.filmorate.exceptions.UserNotFoundException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.Status;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.film.FilmLeaderboard;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:reactive-test;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("reactive")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReactiveControllerTest {
+    private final ReactiveFilmController filmController;
+    private final ReactiveLikesController likesController;
+    private final ReactiveUserController userController;
+    private final ReactiveFriendsController friendsController;
+    private final FilmLeaderboard filmLeaderboard;
+    private Film titanic;
+    private Film brother;
+    private User ivan;
+    private User maria;
+
+    @BeforeEach
+    public void beforeEach() {
+        titanic = filmController.addFilm(Film.builder().name("Титаник").description("О крушении")
+                .releaseDate(LocalDate.of(1997, 12, 19)).duration(194L).mpa(Mpa.PG13)
+                .genres(new LinkedHashSet<>(List.of(Genre.DRAMA, Genre.COMEDY))).build()).block();
+        brother = filmController.addFilm(Film.builder().name("Брат").description("О Даниле Багрове")
+                .releaseDate(LocalDate.of(1997, 5, 17)).duration(100L).mpa(Mpa.R).build()).block();
+        ivan = userController.addUser(User.builder().email("ivan@ya.ru").login("ivan").name("Иван")
+                .birthday(LocalDate.of(1990, 1, 1)).build()).block();
+        maria = userController.addUser(User.builder().email("maria@ya.ru").login("maria").name("")
+                .birthday(LocalDate.of(1991, 2, 2)).build()).block();
+    }
+
+    @Test
+    void addUpdateAndGetFilm() {
+        Assertions.assertEquals(new LinkedHashSet<>(List.of(Genre.COMEDY, Genre.DRAMA)), titanic.getGenres(),
+                "Жанры фильма не совпадают.");
+
+        Film updated = filmController.updateFilm(titanic.toBuilder().description("Обновлённое описание")
+                .genres(new LinkedHashSet<>(List.of(Genre.THRILLER))).build()).block();
+
+        Assertions.assertEquals(updated, filmController.getFilm(titanic.getId()).block(), "Фильмы не совпадают.");
+        Assertions.assertEquals(Set.of(Genre.THRILLER), updated.getGenres(), "Жанры фильма не обновлены.");
+        Assertions.assertThrows(FilmNotFoundException.class,
+                () -> filmController.updateFilm(titanic.toBuilder().id(999).build()).block());
+    }
+
+    @Test
+    void addLikesAndGetPopularFilms() {
+        likesController.addLike(brother.getId(), ivan.getId()).block();
+        likesController.addLike(brother.getId(), maria.getId()).block();
+        likesController.addLike(titanic.getId(), ivan.getId()).block();
+        likesController.deleteLike(titanic.getId(), ivan.getId()).block();
+
+        List<Film> popularFilms = likesController.getPopularFilms(10).collectList().block();
+
+        Assertions.assertEquals(List.of(brother.getId(), titanic.getId()),
+                popularFilms.stream().map(Film::getId).collect(Collectors.toList()),
+                "Порядок популярных фильмов не совпадает.");
+        Assertions.assertEquals(Set.of(ivan.getId(), maria.getId()), popularFilms.get(0).getLikes(),
+                "Лайки фильма не совпадают.");
+        Assertions.assertThrows(FilmLikeAlreadyAddedException.class,
+                () -> likesController.addLike(brother.getId(), ivan.getId()).block());
+        Assertions.assertThrows(FilmNotFoundException.class, () -> likesController.addLike(-1L, -1L).block());
+        Assertions.assertThrows(UserNotFoundException.class,
+                () -> likesController.addLike(brother.getId(), -1L).block());
+    }
+
+    @Test
+    void concurrentLikesChangeCountOnce() {
+        likesController.addLike(brother.getId(), maria.getId()).block();
+
+        List<Throwable> addErrors = Flux.range(0, 8)
+                .flatMap(i -> likesController.addLike(brother.getId(), ivan.getId())
+                        .then(Mono.<Throwable>empty()).onErrorResume(Mono::just))
+                .collectList().block();
+
+        Assertions.assertEquals(7, addErrors.size(), "Лайк поставлен несколько раз.");
+        Assertions.assertTrue(addErrors.stream().allMatch(FilmLikeAlreadyAddedException.class::isInstance),
+                "Повторный лайк завершился другой ошибкой: " + addErrors);
+        Assertions.assertEquals(2, getLikesCount(brother.getId()), "Число лайков не совпадает.");
+
+        List<Throwable> deleteErrors = Flux.range(0, 8)
+                .flatMap(i -> likesController.deleteLike(brother.getId(), ivan.getId())
+                        .then(Mono.<Throwable>empty()).onErrorResume(Mono::just))
+                .collectList().block();
+
+        Assertions.assertEquals(7, deleteErrors.size(), "Лайк удалён несколько раз.");
+        Assertions.assertTrue(deleteErrors.stream().allMatch(FilmLikeNotFoundException.class::isInstance),
+                "Повторное удаление лайка завершилось другой ошибкой: " + deleteErrors);
+        Assertions.assertEquals(1, getLikesCount(brother.getId()), "Число лайков не совпадает.");
+        Assertions.assertEquals(Set.of(maria.getId()), filmController.getFilm(brother.getId()).block().getLikes(),
+                "Лайки фильма не совпадают.");
+    }
+
+    @Test
+    void addFriendsAndGetUsers() {
+        friendsController.addFriend(ivan.getId(), maria.getId()).block();
+        friendsController.addFriend(maria.getId(), ivan.getId()).block();
+
+        Assertions.assertEquals("maria", userController.getUser(maria.getId()).block().getName(),
+                "Пустое имя не заменено логином.");
+        Assertions.assertEquals(Map.of(maria.getId(), Status.CONFIRMED),
+                userController.getUser(ivan.getId()).block().getFriends(), "Друзья пользователя не совпадают.");
+        Assertions.assertEquals(List.of(maria.getId()), friendsController.getFriends(ivan.getId())
+                .map(User::getId).collectList().block(), "Список друзей не совпадает.");
+
+        friendsController.deleteFriend(ivan.getId(), maria.getId()).block();
+
+        Assertions.assertEquals(List.of(maria.getId()), friendsController.getIncomingRequests(ivan.getId())
+                .map(User::getId).collectList().block(), "Список заявок в друзья не совпадает.");
+        Assertions.assertEquals(List.of(ivan.getId(), maria.getId()),
+                userController.getUsers().map(User::getId).collectList().block(), "Список пользователей не совпадает.");
+    }
+
+    private int getLikesCount(long filmId) {
+        int[] likesCount = new int[1];
+        filmLeaderboard.getLikesCount(new long[]{filmId}, 1, likesCount);
+        return likesCount[0];
+    }
+}
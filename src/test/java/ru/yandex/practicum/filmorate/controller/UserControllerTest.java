@@ -1,30 +1,49 @@
 package ru.yandex.practicum.filmorate.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.yandex.practicum.filmorate.exceptions.ValidationException;
 import ru.yandex.practicum.filmorate.exceptions.UserNotFoundException;
 import ru.yandex.practicum.filmorate.model.User;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
 import javax.validation.Validator;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureTestDatabase
+@AutoConfigureMockMvc
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
-@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class UserControllerTest {
     private Validator validator;
     private final UserController controller;
+    private final MockMvc mockMvc;
+    private final ObjectMapper objectMapper;
 
     @BeforeEach
     public void beforeEach() {
@@ -239,4 +258,65 @@ class UserControllerTest {
         Set<ConstraintViolation<User>> violations4 = validator.validate(updatedUserWithoutBirthday);
         Assertions.assertFalse(violations4.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getUsersPage() {
+        List<Long> ids = addUsers(5);
+
+        Assertions.assertEquals(ids.subList(0, 2), getIds(controller.getUsers(0, 2)), "Первая страница не совпадает.");
+        Assertions.assertEquals(ids.subList(2, 4), getIds(controller.getUsers(ids.get(1), 2)),
+                "Вторая страница не совпадает.");
+        Assertions.assertEquals(ids.subList(4, 5), getIds(controller.getUsers(ids.get(3), 2)),
+                "Последняя страница не совпадает.");
+        Assertions.assertTrue(controller.getUsers(ids.get(4), 2).isEmpty(), "Страница после последней не пуста.");
+        Assertions.assertEquals(ids, getIds(controller.getUsers(0, 1000)),
+                "Страница наибольшего размера не совпадает.");
+        Assertions.assertThrows(ValidationException.class, () -> controller.getUsers(0, 0));
+        Assertions.assertThrows(ValidationException.class, () -> controller.getUsers(0, 1001));
+    }
+
+    @Test
+    void getUsersPageWithoutLimit() throws Exception {
+        List<Long> ids = addUsers(3);
+
+        mockMvc.perform(get("/users").param("after", ids.get(0).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(ids.get(1)));
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+        mockMvc.perform(get("/users").param("limit", "1001"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamUsers() throws Exception {
+        List<Long> ids = addUsers(3);
+
+        MvcResult result = mockMvc.perform(get("/users/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<Long> streamedIds = new ArrayList<>();
+        for (String line : body.split("\n"))
+            streamedIds.add(objectMapper.readValue(line, User.class).getId());
+        Assertions.assertEquals(ids, streamedIds, "Выгруженные пользователи не совпадают.");
+    }
+
+    private List<Long> addUsers(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= count; i++)
+            ids.add(controller.addUser(User.builder().email("user" + i + "@ya.ru").login("User" + i)
+                    .name("Пользователь " + i).birthday(LocalDate.of(1990, 1, i)).build()).getId());
+        return ids;
+    }
+
+    private static List<Long> getIds(List<User> users) {
+        return users.stream().map(User::getId).collect(Collectors.toList());
+    }
+}
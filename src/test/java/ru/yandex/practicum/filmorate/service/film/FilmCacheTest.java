@@ -0,0 +1,184 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yandex.practicum.filmorate.controller.FilmController;
+import ru.yandex.practicum.filmorate.controller.LikesController;
+import ru.yandex.practicum.filmorate.controller.UserController;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Genre;
+import ru.yandex.practicum.filmorate.model.Mpa;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.util.LongSet;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class FilmCacheTest {
+    private final FilmCache filmCache;
+    private final FilmService filmService;
+    private final PlatformTransactionManager transactionManager;
+    private final FilmController filmController;
+    private final LikesController likesController;
+    private final UserController userController;
+    private final MeterRegistry meterRegistry;
+    private final List<Long> loadedIds = new ArrayList<>();
+    private Film film;
+
+    @BeforeEach
+    public void beforeEach() {
+        film = filmController.addFilm(Film.builder().name("Титаник").description("О крушении")
+                .releaseDate(LocalDate.of(1997, 12, 19)).duration(194L).mpa(Mpa.PG13)
+                .genres(new LinkedHashSet<>(List.of(Genre.DRAMA))).build());
+    }
+
+    @Test
+    void registerMetrics() {
+        Assertions.assertTrue(filmCache.isEnabled(), "Кэш фильмов выключен.");
+        Assertions.assertNotNull(meterRegistry.find("cache.gets").tag("cache", "films").meter(),
+                "Метрики кэша фильмов не зарегистрированы.");
+        Assertions.assertNotNull(meterRegistry.find("cache.size").tag("cache", "films").meter(),
+                "Метрики кэша фильмов не зарегистрированы.");
+    }
+
+    @Test
+    void loadOnceWhenEnabled() {
+        FilmCache cache = new FilmCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(1));
+
+        cache.get(1L, loader());
+        cache.get(1L, loader());
+        cache.invalidate(1L);
+        cache.get(1L, loader());
+
+        Assertions.assertEquals(List.of(1L, 1L), loadedIds, "Фильм загружен не из кэша.");
+    }
+
+    @Test
+    void loadEveryTimeWhenDisabled() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        FilmCache cache = new FilmCache(registry, false, 100, Duration.ofMinutes(1));
+
+        cache.get(1L, loader());
+        cache.get(1L, loader());
+        cache.getAll(List.of(1L, 2L), ids -> load(ids));
+
+        Assertions.assertFalse(cache.isEnabled(), "Кэш фильмов включён.");
+        Assertions.assertEquals(List.of(1L, 1L, 1L, 2L), loadedIds, "Выключенный кэш сохранил фильмы.");
+        Assertions.assertTrue(registry.getMeters().isEmpty(), "Выключенный кэш зарегистрировал метрики.");
+    }
+
+    @Test
+    void getAllMergesHitsAndMisses() {
+        FilmCache cache = new FilmCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(1));
+        cache.get(1L, loader());
+        cache.get(3L, loader());
+        loadedIds.clear();
+
+        Map<Long, Film> films = cache.getAll(List.of(1L, 2L, 3L, 4L), this::load);
+
+        Assertions.assertEquals(Set.of(2L, 4L), Set.copyOf(loadedIds), "Загружены не только отсутствующие фильмы.");
+        Assertions.assertEquals(Set.of(1L, 2L, 3L, 4L), films.keySet(), "Фильмы не совпадают.");
+        films.forEach((id, cached) -> Assertions.assertEquals(id, cached.getId(), "Фильм не совпадает."));
+    }
+
+    @Test
+    void returnCopies() {
+        FilmCache cache = new FilmCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(1));
+
+        Film cached = cache.get(1L, loader());
+        cached.addLike(7L);
+        cached.setName("Изменено");
+        cached.getGenres().add(Genre.ACTION);
+        cache.getAll(List.of(1L), this::load).get(1L).deleteLike(1L);
+
+        Film reloaded = cache.get(1L, loader());
+        Assertions.assertEquals(Set.of(1L), reloaded.getLikes(), "Изменение лайков попало в кэш.");
+        Assertions.assertEquals("Фильм 1", reloaded.getName(), "Изменение названия попало в кэш.");
+        Assertions.assertEquals(Set.of(Genre.COMEDY), reloaded.getGenres(), "Изменение жанров попало в кэш.");
+        Assertions.assertEquals(List.of(1L), loadedIds, "Фильм загружен не из кэша.");
+    }
+
+    @Test
+    void invalidateOnUpdate() {
+        filmController.getFilm(film.getId());
+
+        filmController.updateFilm(film.toBuilder().name("Титаник 2").build());
+
+        Assertions.assertEquals("Титаник 2", filmController.getFilm(film.getId()).getName(),
+                "Кэш вернул фильм до изменения.");
+    }
+
+    @Test
+    void invalidateAfterCommit() {
+        Film updatedFilm = new TransactionTemplate(transactionManager).execute(status -> {
+            Film result = filmService.updateFilm(film.toBuilder().name("Титаник 2").build());
+            String concurrentName = CompletableFuture.supplyAsync(() -> filmService.getFilm(film.getId()).getName())
+                    .join();
+            Assertions.assertEquals("Титаник", concurrentName, "Прочитан незафиксированный фильм.");
+            return result;
+        });
+
+        Assertions.assertEquals("Титаник 2", updatedFilm.getName(), "Изменение вернуло фильм до изменения.");
+        Assertions.assertEquals("Титаник 2", filmService.getFilm(film.getId()).getName(),
+                "Кэш вернул фильм до изменения.");
+    }
+
+    @Test
+    void invalidateOnGenreChange() {
+        filmController.getFilm(film.getId());
+
+        filmController.updateFilm(film.toBuilder().genres(new LinkedHashSet<>(List.of(Genre.COMEDY, Genre.ACTION)))
+                .build());
+
+        Assertions.assertEquals(Set.of(Genre.COMEDY, Genre.ACTION), filmController.getFilm(film.getId()).getGenres(),
+                "Кэш вернул жанры до изменения.");
+    }
+
+    @Test
+    void invalidateOnLike() {
+        User user = userController.addUser(User.builder().email("bigman@ya.ru").login("BigMan").name("Mannish")
+                .birthday(LocalDate.of(1994, 1, 1)).build());
+        filmController.getFilm(film.getId());
+
+        likesController.addLike(film.getId(), user.getId());
+        Assertions.assertEquals(Set.of(user.getId()), filmController.getFilm(film.getId()).getLikes(),
+                "Кэш вернул лайки до изменения.");
+
+        likesController.deleteLike(film.getId(), user.getId());
+        Assertions.assertTrue(filmController.getFilm(film.getId()).getLikes().isEmpty(),
+                "Кэш вернул лайки до изменения.");
+    }
+
+    private Function<Long, Film> loader() {
+        return id -> load(List.of(id)).get(id);
+    }
+
+    private Map<Long, Film> load(List<Long> ids) {
+        loadedIds.addAll(ids);
+        return ids.stream().collect(Collectors.toMap(Function.identity(), id -> Film.builder().id(id)
+                .name("Фильм " + id).likes(LongSet.of(id)).genres(new LinkedHashSet<>(List.of(Genre.COMEDY)))
+                .build()));
+    }
+}
@@ -0,0 +1,200 @@
+package ru.yandex.practicum.filmorate.service.film;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.yandex.practicum.filmorate.exceptions.LikesQueueOverflowException;
+import ru.yandex.practicum.filmorate.storage.interfaces.LikesStorage;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class LikesWriteBehindQueueTest {
+    private final Set<List<Long>> storedLikes = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger insertBatches = new AtomicInteger();
+    private LikesStorage likesStorage;
+    private LikesWriteBehindQueue queue;
+
+    @BeforeEach
+    public void beforeEach() {
+        likesStorage = Mockito.mock(LikesStorage.class);
+        Mockito.when(likesStorage.containsLike(Mockito.anyLong(), Mockito.anyLong()))
+                .thenAnswer(invocation -> storedLikes.contains(List.of(invocation.<Long>getArgument(0),
+                        invocation.<Long>getArgument(1))));
+        Mockito.doAnswer(invocation -> {
+            Map<Long, Set<Long>> likes = invocation.getArgument(0);
+            if (!likes.isEmpty())
+                insertBatches.incrementAndGet();
+            likes.forEach((filmId, usersId) -> usersId.forEach(userId -> storedLikes.add(List.of(filmId, userId))));
+            return null;
+        }).when(likesStorage).insertLikes(Mockito.anyMap());
+        Mockito.doAnswer(invocation -> {
+            Map<Long, Set<Long>> likes = invocation.getArgument(0);
+            likes.forEach((filmId, usersId) -> usersId.forEach(userId -> storedLikes.remove(List.of(filmId, userId))));
+            return null;
+        }).when(likesStorage).deleteLikes(Mockito.anyMap());
+    }
+
+    @AfterEach
+    public void afterEach() throws InterruptedException {
+        if (queue != null)
+            queue.stop();
+    }
+
+    @Test
+    void coalesceLikeUnlikeLike() {
+        queue = createQueue(100, 1000, 60000, 1000);
+
+        Assertions.assertTrue(queue.addLike(1, 1), "Лайк не поставлен в очередь.");
+        Assertions.assertTrue(queue.deleteLike(1, 1), "Снятие лайка не поставлено в очередь.");
+        Assertions.assertTrue(queue.addLike(1, 1), "Повторный лайк не поставлен в очередь.");
+        Assertions.assertEquals(1, queue.size(), "Изменения одного лайка не объединены.");
+
+        queue.flush();
+
+        Assertions.assertEquals(Set.of(List.of(1L, 1L)), storedLikes, "Лайки в базе данных не совпадают.");
+        Assertions.assertEquals(1, insertBatches.get(), "Лайк записан больше одного раза.");
+        Assertions.assertEquals(0, queue.size(), "Очередь не очищена после записи.");
+    }
+
+    @Test
+    void rejectDuplicateWhilePending() throws Exception {
+        queue = createQueue(100, 1000, 60000, 1000);
+        storedLikes.add(List.of(2L, 1L));
+
+        Assertions.assertFalse(queue.addLike(2, 1), "Принят лайк, который уже есть в базе данных.");
+        Assertions.assertFalse(queue.deleteLike(1, 1), "Принято снятие лайка, которого нет.");
+        Assertions.assertTrue(queue.addLike(1, 1), "Лайк не поставлен в очередь.");
+        Assertions.assertFalse(queue.addLike(1, 1), "Принят повторный лайк, ожидающий записи.");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch startLatch = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    startLatch.await();
+                    return queue.addLike(3, 1);
+                }));
+            }
+            startLatch.countDown();
+            int accepted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(5, TimeUnit.SECONDS))
+                    accepted++;
+            }
+            Assertions.assertEquals(1, accepted, "Из одновременных одинаковых лайков должен пройти один.");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void flushOnBatchSize() throws InterruptedException {
+        queue = createQueue(100, 2, 60000, 1000);
+        queue.start();
+
+        queue.addLike(1, 1);
+        queue.addLike(1, 2);
+
+        awaitStored(2);
+        Assertions.assertEquals(Set.of(List.of(1L, 1L), List.of(1L, 2L)), storedLikes,
+                "Лайки в базе данных не совпадают.");
+    }
+
+    @Test
+    void flushOnInterval() throws InterruptedException {
+        queue = createQueue(100, 1000, 50, 1000);
+        queue.start();
+
+        queue.addLike(1, 1);
+
+        awaitStored(1);
+        Assertions.assertEquals(Set.of(List.of(1L, 1L)), storedLikes, "Лайки в базе данных не совпадают.");
+    }
+
+    @Test
+    void rejectLikeWhenQueueIsFull() {
+        queue = createQueue(2, 1000, 60000, 50);
+
+        queue.addLike(1, 1);
+        queue.addLike(1, 2);
+
+        Assertions.assertThrows(LikesQueueOverflowException.class, () -> queue.addLike(1, 3));
+        Assertions.assertTrue(queue.deleteLike(1, 1), "Изменение лайка, ожидающего записи, не принято.");
+        Assertions.assertEquals(2, queue.size(), "Размер очереди не совпадает.");
+    }
+
+    @Test
+    void flushOnStop() throws InterruptedException {
+        queue = createQueue(100, 1000, 60000, 1000);
+        queue.start();
+
+        queue.addLike(1, 1);
+        queue.stop();
+        queue = null;
+
+        Assertions.assertEquals(Set.of(List.of(1L, 1L)), storedLikes, "Очередь не записана при остановке.");
+    }
+
+    @Test
+    void notifyAboutDroppedLike() {
+        queue = createQueue(100, 1000, 60000, 1000);
+        List<List<Object>> droppedLikes = new ArrayList<>();
+        queue.setDroppedLikeListener((filmId, userId, liked) -> droppedLikes.add(List.of(filmId, userId, liked)));
+        Mockito.doThrow(new IllegalStateException("Нарушен внешний ключ")).when(likesStorage)
+                .insertLikes(Mockito.anyMap());
+
+        queue.addLike(1, 1);
+        queue.flush();
+
+        Assertions.assertEquals(List.of(List.of(1L, 1L, true)), droppedLikes, "Незаписанный лайк не передан.");
+        Assertions.assertEquals(0, queue.size(), "Незаписанный лайк остался в очереди.");
+        Assertions.assertTrue(queue.addLike(1, 1), "Лайк не поставлен в очередь повторно.");
+    }
+
+    @Test
+    void removeAndRestorePendingLikesOfUser() {
+        queue = createQueue(100, 1000, 60000, 1000);
+        storedLikes.add(List.of(2L, 1L));
+        queue.addLike(1, 1);
+        queue.deleteLike(2, 1);
+        queue.addLike(1, 2);
+
+        Map<Long, Boolean> removed = queue.removePendingLikes(1);
+
+        Assertions.assertEquals(Map.of(1L, true, 2L, false), removed, "Убранные изменения не совпадают.");
+        Assertions.assertEquals(1, queue.size(), "Изменения другого пользователя убраны из очереди.");
+
+        queue.restorePendingLikes(1, removed);
+        queue.flush();
+
+        Assertions.assertEquals(Set.of(List.of(1L, 1L), List.of(1L, 2L)), storedLikes,
+                "Лайки в базе данных не совпадают.");
+    }
+
+    private LikesWriteBehindQueue createQueue(int capacity, int batchSize, long flushIntervalMs, long offerTimeoutMs) {
+        FilmCache filmCache = new FilmCache(new SimpleMeterRegistry(), false, 0, Duration.ZERO);
+        return new LikesWriteBehindQueue(likesStorage, filmCache, true, capacity, batchSize, flushIntervalMs,
+                offerTimeoutMs);
+    }
+
+    private void awaitStored(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (storedLikes.size() < count && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+    }
+}
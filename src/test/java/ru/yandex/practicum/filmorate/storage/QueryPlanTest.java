@@ -0,0 +1,132 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.ClassUtils;
+import ru.yandex.practicum.filmorate.storage.film.FilmDbStorage;
+import ru.yandex.practicum.filmorate.storage.film.LikesDbStorage;
+import ru.yandex.practicum.filmorate.storage.user.FriendsDbStorage;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Проверяет планы запросов, которые хранилища выполняют на самом деле: текст запроса перехватывается
+ * при обращении к базе данных и передаётся в EXPLAIN с теми же параметрами.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class QueryPlanTest {
+    private static final List<String> EXECUTED_SQL = Collections.synchronizedList(new ArrayList<>());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LikesDbStorage likesStorage;
+    private final FriendsDbStorage friendsStorage;
+    private final FilmDbStorage filmStorage;
+
+    @Test
+    void loadLikedFilmsIdUsesUserIndex() {
+        String sql = captureSingle(() -> likesStorage.loadLikedFilmsId(1L));
+
+        assertUsesIndex(explain(sql, 1L), "FILM_LIKES_USER_ID_IDX");
+    }
+
+    @Test
+    void loadIncomingRequestsIdUsesFriendIndex() {
+        String sql = captureSingle(() -> friendsStorage.loadIncomingRequestsId(1L));
+
+        assertUsesIndex(explain(sql, 1L, 1), "FRIENDS_FRIEND_ID_IDX");
+    }
+
+    @Test
+    void searchFilmsIdUsesLikeCountIndex() {
+        String sql = captureSingle(() -> filmStorage.searchFilmsId(List.of("елк"), 10));
+
+        assertUsesIndex(explain(sql, "%елк%"), "FILMS_LIKE_COUNT_IDX");
+    }
+
+    @Test
+    void deleteFriendsDoesNotScanTable() {
+        List<String> statements = capture(() -> friendsStorage.deleteFriends(1L));
+
+        Assertions.assertFalse(statements.isEmpty(), "Запросы не перехвачены.");
+        for (String sql : statements) {
+            String plan = explain(sql, 1L);
+            Assertions.assertFalse(plan.contains("tableScan"), "Запрос читает таблицу целиком: " + plan);
+        }
+    }
+
+    private static List<String> capture(Runnable action) {
+        EXECUTED_SQL.clear();
+        action.run();
+        synchronized (EXECUTED_SQL) {
+            return new ArrayList<>(EXECUTED_SQL);
+        }
+    }
+
+    private static String captureSingle(Runnable action) {
+        List<String> statements = capture(action);
+        Assertions.assertEquals(1, statements.size(), "Ожидался один запрос: " + statements);
+        return statements.get(0);
+    }
+
+    private String explain(String sql, Object... args) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args);
+        Assertions.assertNotNull(plan, "План запроса не получен.");
+        return plan;
+    }
+
+    private static void assertUsesIndex(String plan, String index) {
+        Assertions.assertTrue(plan.toUpperCase().contains(index),
+                "Запрос не использует индекс " + index + ": " + plan);
+    }
+
+    @TestConfiguration
+    static class SqlCaptureConfiguration {
+        @Bean
+        static BeanPostProcessor sqlCapture() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? proxy(bean) : bean;
+                }
+            };
+        }
+
+        private static Object proxy(Object target) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                if (args != null && args.length > 0 && args[0] instanceof String
+                        && (target instanceof Connection && method.getName().equals("prepareStatement")
+                        || target instanceof Statement && method.getName().startsWith("execute"))
+                        && !((String) args[0]).startsWith("EXPLAIN"))
+                    EXECUTED_SQL.add((String) args[0]);
+                Object value;
+                try {
+                    value = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                return value instanceof Connection || value instanceof Statement ? proxy(value) : value;
+            };
+            ClassLoader classLoader = QueryPlanTest.class.getClassLoader();
+            return Proxy.newProxyInstance(classLoader,
+                    ClassUtils.getAllInterfacesForClass(target.getClass(), classLoader), handler);
+        }
+    }
+}
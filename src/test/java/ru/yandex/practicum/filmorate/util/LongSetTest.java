@@ -0,0 +1,85 @@
+package ru.yandex.practicum.filmorate.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+class LongSetTest {
+    @Test
+    void addAndRemoveInTheMiddle() {
+        LongSet set = LongSet.of(10, 30, 50);
+
+        Assertions.assertTrue(set.add(20L), "Значение не добавлено в середину.");
+        Assertions.assertTrue(set.add(40L), "Значение не добавлено в середину.");
+        Assertions.assertTrue(set.add(5L), "Значение не добавлено в начало.");
+        Assertions.assertFalse(set.add(30L), "Повторное значение добавлено.");
+        Assertions.assertArrayEquals(new long[]{5, 10, 20, 30, 40, 50}, set.toLongArray(), "Порядок не совпадает.");
+
+        Assertions.assertTrue(set.remove(30L), "Значение из середины не удалено.");
+        Assertions.assertFalse(set.remove(30L), "Удалено отсутствующее значение.");
+        Assertions.assertFalse(set.remove((Object) 30), "Удалено значение другого типа.");
+        Assertions.assertTrue(set.remove(5L), "Первое значение не удалено.");
+        Assertions.assertTrue(set.remove(50L), "Последнее значение не удалено.");
+        Assertions.assertArrayEquals(new long[]{10, 20, 40}, set.toLongArray(), "Порядок не совпадает.");
+        Assertions.assertFalse(set.contains(30L), "Удалённое значение найдено.");
+        Assertions.assertTrue(set.contains(20L), "Значение не найдено.");
+    }
+
+    @Test
+    void growAndMatchHashSet() {
+        Random random = new Random(42);
+        LongSet set = new LongSet();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            long value = random.nextInt(2000);
+            if (random.nextInt(3) == 0)
+                Assertions.assertEquals(expected.remove(value), set.remove(value), "Результат удаления не совпадает.");
+            else
+                Assertions.assertEquals(expected.add(value), set.add(value), "Результат добавления не совпадает.");
+        }
+
+        Assertions.assertEquals(expected.size(), set.size(), "Размер не совпадает.");
+        Assertions.assertEquals(new TreeSet<>(expected), new TreeSet<>(set), "Значения не совпадают.");
+        Assertions.assertEquals(expected, set, "Множества не равны.");
+        Assertions.assertEquals(set, expected, "Множества не равны.");
+        Assertions.assertEquals(expected.hashCode(), set.hashCode(), "Хэш-коды не совпадают.");
+
+        set.trimToSize();
+        Assertions.assertEquals(expected, set, "Множества не равны после сжатия.");
+        Assertions.assertTrue(set.add(5000L), "Значение не добавлено после сжатия.");
+    }
+
+    @Test
+    void removeWithIterator() {
+        LongSet set = LongSet.of(1, 2, 3, 4, 5);
+
+        Iterator<Long> iterator = set.iterator();
+        Assertions.assertThrows(IllegalStateException.class, iterator::remove);
+        while (iterator.hasNext()) {
+            if (iterator.next() % 2 == 0)
+                iterator.remove();
+        }
+
+        Assertions.assertEquals(Set.of(1L, 3L, 5L), set, "Значения не совпадают.");
+        set.clear();
+        Assertions.assertTrue(set.isEmpty(), "Множество не очищено.");
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> set.get(0));
+    }
+
+    @Test
+    void serializeAsArray() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        LongSet set = LongSet.of(3, 1, 2);
+
+        Assertions.assertEquals(objectMapper.writeValueAsString(List.of(1, 2, 3)), objectMapper.writeValueAsString(set),
+                "JSON не совпадает.");
+        Assertions.assertEquals("[]", objectMapper.writeValueAsString(new LongSet()), "JSON не совпадает.");
+    }
+}
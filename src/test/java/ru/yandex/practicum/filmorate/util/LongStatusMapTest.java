@@ -0,0 +1,88 @@
+package ru.yandex.practicum.filmorate.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Status;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+class LongStatusMapTest {
+    @Test
+    void putAndRemoveInTheMiddle() {
+        LongStatusMap map = new LongStatusMap();
+        map.put(10L, Status.CONFIRMED);
+        map.put(30L, Status.UNCONFIRMED);
+
+        Assertions.assertNull(map.put(20L, Status.UNCONFIRMED), "Новый ключ вернул прежнее значение.");
+        Assertions.assertNull(map.put(5L, Status.CONFIRMED), "Новый ключ вернул прежнее значение.");
+        Assertions.assertEquals(Status.UNCONFIRMED, map.put(20L, Status.CONFIRMED), "Прежнее значение не совпадает.");
+        Assertions.assertArrayEquals(new long[]{5, 10, 20, 30}, map.keysToLongArray(), "Порядок ключей не совпадает.");
+        Assertions.assertEquals(Status.CONFIRMED, map.get(20L), "Значение не совпадает.");
+
+        Assertions.assertEquals(Status.CONFIRMED, map.remove(10L), "Удалённое значение не совпадает.");
+        Assertions.assertNull(map.remove(10L), "Удалён отсутствующий ключ.");
+        Assertions.assertNull(map.remove((Object) 20), "Удалён ключ другого типа.");
+        Assertions.assertArrayEquals(new long[]{5, 20, 30}, map.keysToLongArray(), "Порядок ключей не совпадает.");
+        Assertions.assertEquals(Status.UNCONFIRMED, map.get(30L), "Значение сдвинутого ключа не совпадает.");
+        Assertions.assertFalse(map.containsKey(10L), "Удалённый ключ найден.");
+    }
+
+    @Test
+    void growAndMatchHashMap() {
+        Random random = new Random(42);
+        LongStatusMap map = new LongStatusMap();
+        Map<Long, Status> expected = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            long key = random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(key), map.remove(key), "Результат удаления не совпадает.");
+            } else {
+                Status status = Status.values()[random.nextInt(Status.values().length)];
+                Assertions.assertEquals(expected.put(key, status), map.put(key, status),
+                        "Результат добавления не совпадает.");
+            }
+        }
+
+        Assertions.assertEquals(expected.size(), map.size(), "Размер не совпадает.");
+        Assertions.assertEquals(expected, map, "Словари не равны.");
+        Assertions.assertEquals(map, expected, "Словари не равны.");
+        Assertions.assertEquals(expected.hashCode(), map.hashCode(), "Хэш-коды не совпадают.");
+        Assertions.assertEquals(new TreeMap<>(expected), new LinkedHashMap<>(map), "Порядок ключей не совпадает.");
+    }
+
+    @Test
+    void removeWithIterator() {
+        LongStatusMap map = new LongStatusMap();
+        for (long key = 1; key <= 5; key++)
+            map.put(key, key % 2 == 0 ? Status.CONFIRMED : Status.UNCONFIRMED);
+
+        Iterator<Map.Entry<Long, Status>> iterator = map.entrySet().iterator();
+        Assertions.assertThrows(IllegalStateException.class, iterator::remove);
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue() == Status.CONFIRMED)
+                iterator.remove();
+        }
+
+        Assertions.assertEquals(Map.of(1L, Status.UNCONFIRMED, 3L, Status.UNCONFIRMED, 5L, Status.UNCONFIRMED), map,
+                "Значения не совпадают.");
+    }
+
+    @Test
+    void serializeAsObject() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        LongStatusMap map = new LongStatusMap();
+        map.put(2L, Status.CONFIRMED);
+        map.put(1L, Status.UNCONFIRMED);
+        Map<Long, Status> expected = new TreeMap<>(map);
+
+        Assertions.assertEquals(objectMapper.writeValueAsString(expected), objectMapper.writeValueAsString(map),
+                "JSON не совпадает.");
+        Assertions.assertEquals("{}", objectMapper.writeValueAsString(new LongStatusMap()), "JSON не совпадает.");
+    }
+}
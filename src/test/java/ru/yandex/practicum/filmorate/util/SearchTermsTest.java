@@ -0,0 +1,44 @@
+package ru.yandex.practicum.filmorate.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class SearchTermsTest {
+    @Test
+    void tokenizeAndNormalize() {
+        Assertions.assertEquals(List.of("елк", "2", "snow", "2010"), SearchTerms.tokenize("Ёлки-2: SNOW, в 2010!"),
+                "Слова не совпадают.");
+        Assertions.assertTrue(SearchTerms.tokenize(null).isEmpty(), "Пустой текст разобран на слова.");
+    }
+
+    @Test
+    void stemWordForms() {
+        Assertions.assertEquals(SearchTerms.stem("титаник"), SearchTerms.stem("титанике"), "Падежи не совпадают.");
+        Assertions.assertEquals(SearchTerms.stem("крушение"), SearchTerms.stem("крушении"), "Падежи не совпадают.");
+        Assertions.assertEquals(SearchTerms.stem("новогодняя"), SearchTerms.stem("новогодней"), "Роды не совпадают.");
+        Assertions.assertEquals(SearchTerms.stem("брат"), SearchTerms.stem("братом"), "Падежи не совпадают.");
+        Assertions.assertEquals("кот", SearchTerms.stem("кот"), "Короткое слово изменено.");
+        Assertions.assertEquals("дом", SearchTerms.stem("дома"), "Окончание не отброшено.");
+        Assertions.assertEquals("matrix", SearchTerms.stem("matrix"), "Латинское слово изменено.");
+    }
+
+    @Test
+    void stemIsPrefixOfWord() {
+        for (String word : List.of("фильмами", "комедия", "историей", "чудесах", "новый", "годом")) {
+            Assertions.assertTrue(word.startsWith(SearchTerms.stem(word)), "Основа не является началом слова.");
+        }
+    }
+
+    @Test
+    void termsAndContainsAll() {
+        List<String> terms = SearchTerms.terms("Титаник, титанике и крушение");
+
+        Assertions.assertEquals(List.of("титаник", "крушен"), terms, "Слова запроса не совпадают.");
+        Assertions.assertTrue(SearchTerms.containsAll(terms, "Крушение", "Снова о Титанике"),
+                "Слова, разнесённые по названию и описанию, не найдены.");
+        Assertions.assertFalse(SearchTerms.containsAll(terms, "Титаник", null), "Найдены не все слова запроса.");
+        Assertions.assertFalse(SearchTerms.containsAll(List.of("тит"), "Титаник"), "Найдена часть слова.");
+    }
+}